@@ -0,0 +1,17 @@
+package com.example.Config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.Models.Parrot;
+
+// ADDING THE SAME BEAN AS PROJECTCONFIG WITH A SUPPLIER INSTEAD OF PARSING THE @BEAN METHOD
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("parrot1", Parrot.class, () -> {
+            var p = new Parrot();
+            p.setName("Riki");
+            return p;
+        });
+    }
+}
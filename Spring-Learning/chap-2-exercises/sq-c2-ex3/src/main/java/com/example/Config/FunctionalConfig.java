@@ -0,0 +1,22 @@
+package com.example.Config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.Models.Parrot;
+
+// Same four parrots as ProjectConfig, registered with suppliers; @Primary becomes a bean definition flag
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("parrot1", Parrot.class, () -> parrot("Riki"));
+        context.registerBean("parrot2", Parrot.class, () -> parrot("Koko"));
+        context.registerBean("parrot3", Parrot.class, () -> parrot("Mini"));
+        context.registerBean("parrot4", Parrot.class, () -> parrot("Lola"), definition -> definition.setPrimary(true));
+    }
+
+    private static Parrot parrot(String name){
+        var p = new Parrot();
+        p.setName(name);
+        return p;
+    }
+}
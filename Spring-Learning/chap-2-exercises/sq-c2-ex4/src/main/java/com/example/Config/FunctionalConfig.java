@@ -0,0 +1,20 @@
+package com.example.Config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.Models.Parrot;
+
+/**
+ * Registers the scanned Parrot component with a supplier instead. Without annotation processing
+ * {@code @PostConstruct} is not looked for, so the supplier calls init() itself.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("parrot", Parrot.class, () -> {
+            var p = new Parrot();
+            p.init();
+            return p;
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.Config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.Models.*;
+
+// WIRING THE BEANS FROM SUPPLIERS: THE PERSON SUPPLIER ASKS THE CONTEXT FOR THE PARROT BEAN BY NAME
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("parrot", Parrot.class, () -> {
+            var p = new Parrot();
+            p.setName("Riki");
+            return p;
+        });
+        context.registerBean("person", Person.class, () -> {
+            var p = new Person();
+            p.setName("Ella");
+            p.setParrot(context.getBean("parrot", Parrot.class));
+            return p;
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.Config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.Models.*;
+
+// Registering the beans with suppliers: the parrot is passed to the person like the @Bean method parameter
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("parrot", Parrot.class, () -> {
+            var p = new Parrot();
+            p.setName("Koko");
+            return p;
+        });
+        context.registerBean("person", Person.class, () -> person(context.getBean("parrot", Parrot.class)));
+    }
+
+    private static Person person(Parrot parrot){
+        var p = new Person();
+        p.setName("Ella");
+        p.setParrot(parrot);
+        return p;
+    }
+}
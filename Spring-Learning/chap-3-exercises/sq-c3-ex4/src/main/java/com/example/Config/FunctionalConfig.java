@@ -0,0 +1,21 @@
+package com.example.Config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.Models.*;
+
+/**
+ * Registers the two scanned components with suppliers. The parrot goes in through Person.setParrot
+ * instead of the {@code @Autowired} field, so the field is never set by reflection.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("parrot", Parrot.class, Parrot::new);
+        context.registerBean("person", Person.class, () -> {
+            var person = new Person();
+            person.setParrot(context.getBean("parrot", Parrot.class));
+            return person;
+        });
+    }
+}
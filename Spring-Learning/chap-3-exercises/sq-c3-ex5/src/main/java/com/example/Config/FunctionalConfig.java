@@ -0,0 +1,28 @@
+package com.example.Config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.Models.*;
+import com.example.Profiling.*;
+
+/**
+ * Registers the profiler and the scanned components with suppliers. Person gets its parrot through the
+ * constructor as before, and the suppliers call the {@code @PostConstruct} methods themselves, so the profiler
+ * reports their cost as part of instantiation.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("beanCreationProfiler", BeanCreationProfiler.class, ProjectConfig::beanCreationProfiler);
+        context.registerBean("parrot", Parrot.class, () -> {
+            var parrot = new Parrot();
+            parrot.init();
+            return parrot;
+        });
+        context.registerBean("person", Person.class, () -> {
+            var person = new Person(context.getBean("parrot", Parrot.class));
+            person.init();
+            return person;
+        });
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.Config;
 import org.springframework.context.annotation.*;
+import com.example.Profiling.*;
 
 @Configuration
 @ComponentScan(basePackages = "com.example.Models")
 public class ProjectConfig {
-    
+
+    // Static so the profiler is registered before any application bean is created
+    @Bean
+    public static BeanCreationProfiler beanCreationProfiler(){
+        return new BeanCreationProfiler();
+    }
 }
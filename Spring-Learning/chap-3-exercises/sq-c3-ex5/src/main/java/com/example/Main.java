@@ -2,6 +2,7 @@ package com.example;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import com.example.Config.*;
 import com.example.Models.*;
+import com.example.Profiling.*;
 
 public class Main {
 
@@ -9,5 +10,7 @@ public class Main {
         var context = new AnnotationConfigApplicationContext(ProjectConfig.class);
         Person person = context.getBean(Person.class);
         System.out.println(person);
+
+        System.out.println(context.getBean(BeanCreationProfiler.class).report());
     }
-}
\ No newline at end of file
+}
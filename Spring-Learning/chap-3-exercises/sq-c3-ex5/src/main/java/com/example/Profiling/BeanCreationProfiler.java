@@ -0,0 +1,263 @@
+package com.example.Profiling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.core.PriorityOrdered;
+
+/**
+ * Measures how long each bean takes to create, split into instantiation (constructor, including resolving
+ * constructor arguments), injection (field and setter injection) and initialization (init callbacks such as
+ * {@code @PostConstruct}). Time spent creating dependencies while a bean is being created is subtracted from
+ * the bean's own phases, so "self" is the bean's own cost and "total" includes its dependencies.
+ *
+ * Register it as a static {@code @Bean} so it sees every application bean. Because post-processors run in
+ * order, initialization time covers the post-processors registered after this one. A bean whose creation
+ * fails never reaches the last callback, so its frame is discarded once the bean is no longer in creation.
+ * Spring only asks for {@code postProcessBeforeInstantiation} on a definition's first creation, so later
+ * prototype instances are timed from the end of instantiation and report no instantiation time.
+ */
+public class BeanCreationProfiler implements InstantiationAwareBeanPostProcessor, BeanFactoryAware, PriorityOrdered {
+    private final ThreadLocal<Deque<Frame>> inCreation = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<String, BeanStats> stats = new ConcurrentHashMap<>();
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory){
+        this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    public int getOrder(){
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName){
+        push(beanName, System.nanoTime());
+        return null;
+    }
+
+    @Override
+    public boolean postProcessAfterInstantiation(Object bean, String beanName){
+        long now = System.nanoTime();
+        Frame frame = current(beanName);
+        if (frame == null){
+            frame = push(beanName, now);
+        }
+        frame.instantiated = now;
+        frame.childNanosAtInstantiated = frame.childNanos;
+        return true;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName){
+        Frame frame = current(beanName);
+        if (frame != null){
+            frame.injected = System.nanoTime();
+            frame.childNanosAtInjected = frame.childNanos;
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName){
+        Frame frame = current(beanName);
+        if (frame == null){
+            return bean;
+        }
+        Deque<Frame> stack = inCreation.get();
+        stack.pop();
+        long end = System.nanoTime();
+        long instantiated = frame.instantiated == 0 ? frame.start : frame.instantiated;
+        long injected = frame.injected == 0 ? instantiated : frame.injected;
+        long total = end - frame.start;
+
+        BeanStats beanStats = stats.computeIfAbsent(beanName, BeanStats::new);
+        beanStats.record(
+                instantiated - frame.start - frame.childNanosAtInstantiated,
+                injected - instantiated - (frame.childNanosAtInjected - frame.childNanosAtInstantiated),
+                end - injected - (frame.childNanos - frame.childNanosAtInjected),
+                total,
+                total - frame.childNanos);
+
+        Frame parent = stack.peek();
+        if (parent != null){
+            parent.childNanos += total;
+        }
+        return bean;
+    }
+
+    public List<BeanStats> getStats(){
+        List<BeanStats> sorted = new ArrayList<>(stats.values());
+        sorted.sort(Comparator.comparingLong(BeanStats::totalNanos).reversed());
+        return sorted;
+    }
+
+    public String report(){
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-30s %-10s %7s %12s %12s %12s %12s %12s %12s%n", "bean", "scope", "count",
+                "instantiate", "inject", "init", "self ms", "total ms", "created/s"));
+        for (BeanStats bean : getStats()){
+            boolean prototype = beanFactory.containsBeanDefinition(bean.name) && beanFactory.isPrototype(bean.name);
+            report.append(String.format("%-30s %-10s %7d %12.3f %12.3f %12.3f %12.3f %12.3f %12s%n",
+                    bean.name, prototype ? "prototype" : "singleton", bean.count.sum(),
+                    bean.instantiateNanos.sum() / 1e6, bean.injectNanos.sum() / 1e6, bean.initNanos.sum() / 1e6,
+                    bean.selfNanos.sum() / 1e6, bean.totalNanos() / 1e6,
+                    prototype ? String.format("%.1f", bean.creationsPerSecond()) : "-"));
+        }
+
+        report.append("\nDependency graph (cumulative creation cost in ms):\n");
+        Set<String> dependencies = new HashSet<>();
+        for (String name : stats.keySet()){
+            dependencies.addAll(List.of(beanFactory.getDependenciesForBean(name)));
+        }
+        stats.keySet().stream()
+                .filter(name -> !dependencies.contains(name))
+                .sorted(Comparator.comparingDouble(this::cumulativeMillis).reversed())
+                .forEach(root -> appendGraph(report, root, 1, new HashSet<>()));
+        return report.toString();
+    }
+
+    private void appendGraph(StringBuilder report, String name, int depth, Set<String> path){
+        report.append("  ".repeat(depth)).append(name)
+                .append(String.format(" (%.3f)", cumulativeMillis(name)));
+        if (!path.add(name)){
+            report.append(" [cycle]\n");
+            return;
+        }
+        report.append('\n');
+        for (String dependency : beanFactory.getDependenciesForBean(name)){
+            appendGraph(report, dependency, depth + 1, path);
+        }
+        path.remove(name);
+    }
+
+    // Own creation cost of the bean plus the cumulative cost of everything it depends on
+    private double cumulativeMillis(String name){
+        return cumulativeNanos(name, new HashSet<>()) / 1e6;
+    }
+
+    private long cumulativeNanos(String name, Set<String> visited){
+        if (!visited.add(name)){
+            return 0;
+        }
+        BeanStats bean = stats.get(name);
+        long nanos = bean == null ? 0 : bean.selfNanos.sum();
+        if (beanFactory.containsBeanDefinition(name) || beanFactory.containsSingleton(name)){
+            for (String dependency : beanFactory.getDependenciesForBean(name)){
+                nanos += cumulativeNanos(dependency, visited);
+            }
+        }
+        return nanos;
+    }
+
+    private Frame push(String beanName, long start){
+        Deque<Frame> stack = inCreation.get();
+        discardFailed(stack);
+        Frame frame = new Frame(beanName, start);
+        stack.push(frame);
+        return frame;
+    }
+
+    // The frame of the given bean on this thread; frames above it belong to dependencies that failed
+    private Frame current(String beanName){
+        Deque<Frame> stack = inCreation.get();
+        for (Frame frame : stack){
+            if (frame.beanName.equals(beanName)){
+                while (stack.peek() != frame){
+                    stack.pop();
+                }
+                return frame;
+            }
+        }
+        return null;
+    }
+
+    // Drops frames left behind by beans whose creation threw before postProcessAfterInitialization
+    private void discardFailed(Deque<Frame> stack){
+        while (!stack.isEmpty() && !beanFactory.isCurrentlyInCreation(stack.peek().beanName)){
+            stack.pop();
+        }
+    }
+
+    private static final class Frame {
+        final String beanName;
+        final long start;
+        long instantiated;
+        long injected;
+        long childNanos;
+        long childNanosAtInstantiated;
+        long childNanosAtInjected;
+
+        Frame(String beanName, long start){
+            this.beanName = beanName;
+            this.start = start;
+        }
+    }
+
+    public static final class BeanStats {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder instantiateNanos = new LongAdder();
+        private final LongAdder injectNanos = new LongAdder();
+        private final LongAdder initNanos = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder selfNanos = new LongAdder();
+        private volatile long firstCreated;
+        private volatile long lastCreated;
+
+        BeanStats(String name){
+            this.name = name;
+        }
+
+        void record(long instantiate, long inject, long init, long total, long self){
+            long now = System.nanoTime();
+            if (count.sum() == 0){
+                firstCreated = now;
+            }
+            lastCreated = now;
+            count.increment();
+            instantiateNanos.add(instantiate);
+            injectNanos.add(inject);
+            initNanos.add(init);
+            totalNanos.add(total);
+            selfNanos.add(self);
+        }
+
+        public String name(){
+            return name;
+        }
+
+        public long count(){
+            return count.sum();
+        }
+
+        public long totalNanos(){
+            return totalNanos.sum();
+        }
+
+        public long selfNanos(){
+            return selfNanos.sum();
+        }
+
+        // Creation rate between the first and the last creation, meaningful for prototype beans
+        public double creationsPerSecond(){
+            long created = count.sum();
+            long window = lastCreated - firstCreated;
+            return created < 2 || window <= 0 ? 0 : (created - 1) / (window / 1e9);
+        }
+    }
+}
@@ -1,24 +1,40 @@
 package com.example;
 
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import com.example.model.Comment;
 import com.example.proxies.EmailCommentNotificationProxy;
 import com.example.repositories.DBCommentRepository;
 import com.example.services.CommentService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 public class Main {
     public static void main(String[] args) {
-        // Create the instance for the dependencies
-        var commentRepository = new DBCommentRepository();
-        var commentNotificationProxy = new EmailCommentNotificationProxy();
+        // Embedded in-memory H2 database behind a bounded connection pool, closed when the program ends
+        var dataSourceConfig = new HikariConfig();
+        dataSourceConfig.setJdbcUrl("jdbc:h2:mem:comments;DB_CLOSE_DELAY=-1");
+        dataSourceConfig.setUsername("sa");
+        dataSourceConfig.setMaximumPoolSize(4);
+        dataSourceConfig.setPoolName("comment-pool");
+        try (var dataSource = new HikariDataSource(dataSourceConfig)){
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
 
-        // Create an instance of the service class and provide the dependencies
-        var commentService = new CommentService(commentNotificationProxy, commentRepository);
+            // Create the instance for the dependencies
+            var commentRepository = new DBCommentRepository(new JdbcTemplate(dataSource));
+            var commentNotificationProxy = new EmailCommentNotificationProxy();
 
-        // Creates an instance of comment to send as a parameter to the publish comment use case
-        var comment = new Comment();
-        comment.setAuthor("Maaha");
-        comment.setText("Hello World!");
+            // Create an instance of the service class and provide the dependencies
+            var commentService = new CommentService(commentNotificationProxy, commentRepository);
 
-        commentService.publishComment(comment);
+            // Creates an instance of comment to send as a parameter to the publish comment use case
+            var comment = new Comment();
+            comment.setAuthor("Maaha");
+            comment.setText("Hello World!");
+
+            commentService.publishComment(comment);
+            System.out.println("Stored comments: " + commentRepository.countComments());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,15 @@
 package com.example.repositories;
+import java.util.List;
 import com.example.model.Comment;
 
 public interface CommentRepository {
     
     void storeComment(Comment comment);
+
+    // Stores a group of comments in one call; implementations that can write in bulk should override this
+    default void storeComments(List<Comment> comments){
+        for (Comment comment : comments){
+            storeComment(comment);
+        }
+    }
 }
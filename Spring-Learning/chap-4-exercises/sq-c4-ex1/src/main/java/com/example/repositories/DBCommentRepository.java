@@ -1,10 +1,60 @@
 package com.example.repositories;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import com.example.model.Comment;
 
 public class DBCommentRepository implements CommentRepository {
 
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String INSERT_COMMENT = "INSERT INTO comment (author, text) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public DBCommentRepository(JdbcTemplate jdbcTemplate){
+        this(jdbcTemplate, DEFAULT_BATCH_SIZE);
+    }
+
+    public DBCommentRepository(JdbcTemplate jdbcTemplate, int batchSize){
+        if (batchSize < 1){
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
     @Override
     public void storeComment(Comment comment){
-        System.out.println("Storing comment: " + comment.getText());
+        jdbcTemplate.update(INSERT_COMMENT, comment.getAuthor(), comment.getText());
+    }
+
+    // Sends the comments as JDBC batches of at most batchSize rows, each batch reusing one prepared statement
+    @Override
+    public void storeComments(List<Comment> comments){
+        for (int from = 0; from < comments.size(); from += batchSize){
+            List<Comment> chunk = comments.subList(from, Math.min(from + batchSize, comments.size()));
+            jdbcTemplate.batchUpdate(INSERT_COMMENT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Comment comment = chunk.get(i);
+                    ps.setString(1, comment.getAuthor());
+                    ps.setString(2, comment.getText());
+                }
+
+                @Override
+                public int getBatchSize(){
+                    return chunk.size();
+                }
+            });
+        }
+    }
+
+    public long countComments(){
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comment", Long.class);
+        return count == null ? 0 : count;
     }
 }
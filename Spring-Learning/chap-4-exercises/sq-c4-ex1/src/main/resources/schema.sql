@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS comment (
+    id     BIGINT AUTO_INCREMENT PRIMARY KEY,
+    author VARCHAR(255) NOT NULL,
+    text   VARCHAR(4000) NOT NULL
+);
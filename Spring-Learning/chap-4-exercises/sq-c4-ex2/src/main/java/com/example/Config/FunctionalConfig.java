@@ -0,0 +1,53 @@
+package com.example.Config;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import com.example.repositories.*;
+import com.example.proxies.*;
+import com.example.services.*;
+
+/**
+ * Registers the same beans as {@link ProjectConfig}, under the same names, with a {@link java.util.function.Supplier}
+ * each. Nothing is scanned or parsed and no constructor or field is looked up by reflection: the suppliers call the
+ * constructors and the {@code @Bean} methods directly and fetch their dependencies by name.
+ * Used when the application runs with -Dspring.functional=true.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        ProjectConfig config = new ProjectConfig();
+        // HikariDataSource is closed through AutoCloseable, as the inferred destroy method of the @Bean would be
+        context.registerBean("dataSource", DataSource.class, config::dataSource,
+                definition -> definition.setDestroyMethodName(AbstractBeanDefinition.INFER_METHOD));
+        context.registerBean("dataSourceInitializer", DataSourceInitializer.class,
+                () -> config.dataSourceInitializer(context.getBean("dataSource", DataSource.class)));
+        context.registerBean("jdbcTemplate", JdbcTemplate.class,
+                () -> config.jdbcTemplate(context.getBean("dataSource", DataSource.class)));
+
+        context.registerBean("DBCommentRepository", DBCommentRepository.class,
+                () -> new DBCommentRepository(context.getBean("jdbcTemplate", JdbcTemplate.class)));
+        context.registerBean("emailCommentNotificationProxy", EmailCommentNotificationProxy.class,
+                EmailCommentNotificationProxy::new);
+
+        context.registerBean("commentService", CommentService.class,
+                () -> new CommentService(repository(context), proxy(context)));
+        context.registerBean("asyncCommentPublisher", AsyncCommentPublisher.class,
+                () -> new AsyncCommentPublisher(repository(context), proxy(context)));
+        context.registerBean("concurrentCommentPublisher", ConcurrentCommentPublisher.class,
+                () -> new ConcurrentCommentPublisher(repository(context), proxy(context)));
+        context.registerBean("reactiveCommentPublisher", ReactiveCommentPublisher.class,
+                () -> new ReactiveCommentPublisher(repository(context), proxy(context)));
+    }
+
+    private static CommentRepository repository(GenericApplicationContext context){
+        return context.getBean("DBCommentRepository", CommentRepository.class);
+    }
+
+    private static CommentNotificationProxy proxy(GenericApplicationContext context){
+        return context.getBean("emailCommentNotificationProxy", CommentNotificationProxy.class);
+    }
+}
@@ -1,5 +1,12 @@
 package com.example.Config;
+import javax.sql.DataSource;
 import org.springframework.context.annotation.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 @Configuration
 @ComponentScan(basePackages = {
@@ -8,5 +15,30 @@ import org.springframework.context.annotation.*;
     "com.example.proxies"
 })
 public class ProjectConfig{
-    
-}
\ No newline at end of file
+
+    public static final int MAX_POOL_SIZE = 4;
+
+    // Embedded in-memory H2 database behind a bounded connection pool
+    @Bean
+    public DataSource dataSource(){
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:comments;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(MAX_POOL_SIZE);
+        config.setPoolName("comment-pool");
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public DataSourceInitializer dataSourceInitializer(DataSource dataSource){
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")));
+        return initializer;
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource){
+        return new JdbcTemplate(dataSource);
+    }
+}
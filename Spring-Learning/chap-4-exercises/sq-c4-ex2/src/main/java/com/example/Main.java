@@ -1,12 +1,11 @@
 package com.example;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import com.example.aot.*;
 import com.example.model.*;
 import com.example.services.*;
-import com.example.Config.*;
 
 public class Main {
-    public static void main(String[] args) {
-        var context = new AnnotationConfigApplicationContext(ProjectConfig.class);
+    public static void main(String[] args) throws InterruptedException {
+        var context = ContextFactory.createContext();
 
         var comment = new Comment();
         comment.setAuthor("Maaha");
@@ -14,5 +13,24 @@ public class Main {
 
         var commentService = context.getBean(CommentService.class);
         commentService.publishComment(comment);
+
+        // Async mode: the call only enqueues, storing and notifying happen in batches on the drain worker
+        var asyncPublisher = context.getBean(AsyncCommentPublisher.class);
+        for (int i = 0; i < 5; i++){
+            var asyncComment = new Comment();
+            asyncComment.setAuthor("Maaha");
+            asyncComment.setText("Async Comment " + i);
+            asyncPublisher.publishComment(asyncComment);
+        }
+
+        // Concurrent mode: storing and notifying run at the same time, each with its own timeout
+        var concurrentPublisher = context.getBean(ConcurrentCommentPublisher.class);
+        var concurrentComment = new Comment();
+        concurrentComment.setAuthor("Maaha");
+        concurrentComment.setText("Concurrent Comment");
+        System.out.println(concurrentPublisher.publishComment(concurrentComment).join());
+
+        context.close();
+        System.out.println(asyncPublisher.getStats());
     }
-}
\ No newline at end of file
+}
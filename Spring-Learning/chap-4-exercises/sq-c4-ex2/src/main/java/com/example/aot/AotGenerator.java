@@ -0,0 +1,37 @@
+package com.example.aot;
+import java.nio.file.Path;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.aot.ContextAotProcessor;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.Config.*;
+
+/**
+ * Build-time step of the aot profile. Refreshes the context for AOT processing, which parses the configuration
+ * and bean definitions without creating any bean, and writes the equivalent registration code as Java sources
+ * plus the generated configuration proxy classes.
+ * Arguments: source, resource and class output directories; the processor empties them before writing.
+ */
+public class AotGenerator extends ContextAotProcessor {
+
+    public AotGenerator(Settings settings){
+        super(ProjectConfig.class, settings);
+    }
+
+    @Override
+    protected GenericApplicationContext prepareApplicationContext(Class<?> applicationClass){
+        var context = new AnnotationConfigApplicationContext();
+        context.register(applicationClass);
+        return context;
+    }
+
+    public static void main(String[] args) {
+        var settings = Settings.builder()
+                .sourceOutput(Path.of(args[0]))
+                .resourceOutput(Path.of(args[1]))
+                .classOutput(Path.of(args[2]))
+                .groupId("com.example")
+                .artifactId("sq-c4-ex2")
+                .build();
+        new AotGenerator(settings).process();
+    }
+}
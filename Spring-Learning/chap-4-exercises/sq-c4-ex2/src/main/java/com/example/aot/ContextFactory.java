@@ -0,0 +1,52 @@
+package com.example.aot;
+import org.springframework.aot.AotDetector;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ClassUtils;
+import com.example.Config.*;
+
+/**
+ * Creates the application context from the code generated by the aot profile (run with -Dspring.aot.enabled=true),
+ * from the hand-written {@link FunctionalConfig} registrations (run with -Dspring.functional=true) or, by default,
+ * by scanning and parsing ProjectConfig. Component scanning itself uses META-INF/spring.components when the
+ * indexer generated it.
+ */
+public final class ContextFactory {
+    public static final String FUNCTIONAL_PROPERTY = "spring.functional";
+
+    private static final String INITIALIZER = ProjectConfig.class.getName() + "__ApplicationContextInitializer";
+
+    private ContextFactory(){
+    }
+
+    public static GenericApplicationContext createContext(){
+        if (Boolean.getBoolean(FUNCTIONAL_PROPERTY)){
+            var context = new GenericApplicationContext();
+            new FunctionalConfig().initialize(context);
+            context.refresh();
+            return context;
+        }
+        if (!AotDetector.useGeneratedArtifacts()){
+            return new AnnotationConfigApplicationContext(ProjectConfig.class);
+        }
+        var context = new GenericApplicationContext();
+        initializer().initialize(context);
+        context.refresh();
+        return context;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ApplicationContextInitializer<GenericApplicationContext> initializer(){
+        if (!ClassUtils.isPresent(INITIALIZER, ContextFactory.class.getClassLoader())){
+            throw new IllegalStateException("spring.aot.enabled is set but " + INITIALIZER
+                    + " was not generated, build with: mvn -P aot compile");
+        }
+        try {
+            Class<?> type = ClassUtils.forName(INITIALIZER, ContextFactory.class.getClassLoader());
+            return (ApplicationContextInitializer<GenericApplicationContext>) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e){
+            throw new IllegalStateException("Cannot create " + INITIALIZER, e);
+        }
+    }
+}
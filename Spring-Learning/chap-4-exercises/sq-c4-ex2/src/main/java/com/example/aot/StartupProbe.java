@@ -0,0 +1,14 @@
+package com.example.aot;
+import java.lang.management.ManagementFactory;
+
+// Started in a fresh JVM by StartupBenchmark: prints context startup time and JVM start to ready time in microseconds
+public class StartupProbe {
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        var context = ContextFactory.createContext();
+        long contextMicros = (System.nanoTime() - start) / 1000;
+        long readyMicros = (System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime()) * 1000;
+        context.close();
+        System.out.println(contextMicros + " " + readyMicros);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.benchmark;
+import java.util.Random;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Compares looking up an author's comments through the author index with scanning every stored comment.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.AuthorIndexBenchmark -Dexec.args="1000000 10000"
+ */
+public class AuthorIndexBenchmark {
+    private static final int LOOKUPS = 1000;
+
+    public static void main(String[] args){
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int authors = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        InMemoryCommentRepository store = new InMemoryCommentRepository(count);
+        AuthorIndexedCommentRepository repository = new AuthorIndexedCommentRepository(store);
+
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++){
+            var comment = new Comment();
+            comment.setAuthor("author-" + random.nextInt(authors));
+            comment.setText("Benchmark comment number " + i);
+            repository.storeComment(comment);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Stored and indexed %d comments from %d authors in %d ms (%.0f comments/sec)%n",
+                count, authors, elapsed / 1_000_000, count / (elapsed / 1e9));
+
+        long found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++){
+            found += repository.findByAuthor("author-" + random.nextInt(authors)).count();
+        }
+        elapsed = System.nanoTime() - start;
+        System.out.printf("Indexed lookup: %.1f us per author (%d comments found)%n", elapsed / 1e3 / LOOKUPS, found);
+
+        int scans = 20;
+        found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < scans; i++){
+            String author = "author-" + random.nextInt(authors);
+            for (int id = 0; id < store.size(); id++){
+                if (store.findComment(id).getAuthor().equals(author)){
+                    found++;
+                }
+            }
+        }
+        elapsed = System.nanoTime() - start;
+        System.out.printf("Full scan: %.1f us per author (%d comments found)%n", elapsed / 1e3 / scans, found);
+    }
+}
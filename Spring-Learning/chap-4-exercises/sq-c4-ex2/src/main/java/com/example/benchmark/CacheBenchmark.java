@@ -0,0 +1,164 @@
+package com.example.benchmark;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import com.example.Config.*;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Replays a Zipf-distributed read workload mixed with sequential scans against the caching repository and against
+ * a plain LRU cache of the same size, both in front of the JDBC repository, and prints hit rates and average read times.
+ * The workload is then replayed by several threads at once against each cache, which is where a lock on the hit
+ * path shows up.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.CacheBenchmark -Dexec.args="200000 5000 8"
+ */
+public class CacheBenchmark {
+    private static final int READS = 1_000_000;
+
+    public static void main(String[] args){
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int cacheSize = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        try (var context = new AnnotationConfigApplicationContext(ProjectConfig.class)){
+            var repository = context.getBean(DBCommentRepository.class);
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++){
+                var comment = new Comment();
+                comment.setAuthor("author-" + (i % 1000));
+                comment.setText("Benchmark comment number " + i);
+                ids[i] = repository.append(comment);
+            }
+            long[] workload = workload(ids, new Random(42));
+
+            // The first pass warms up the JDBC read path so the measured runs compare caches, not JIT state
+            replay(repository, workload);
+            System.out.printf("Uncached: %.0f ns/read%n", replay(repository, workload));
+            var lru = new LruCommentRepository(repository, cacheSize);
+            System.out.printf("LRU:      %.0f ns/read, hitRate=%.1f%%%n", replay(lru, workload), lru.hitRate() * 100);
+            var cache = new CachingCommentRepository(repository, cacheSize, 0, Duration.ofMinutes(10));
+            System.out.printf("TinyLFU:  %.0f ns/read, %s%n", replay(cache, workload), cache.getStats());
+
+            // Both caches are warm now, so the concurrent runs mostly measure the hit path
+            System.out.printf("LRU, %d threads:     %.0f ns/read, hitRate=%.1f%%%n",
+                    threads, replayConcurrently(lru, workload, threads), lru.hitRate() * 100);
+            System.out.printf("TinyLFU, %d threads: %.0f ns/read, %s%n",
+                    threads, replayConcurrently(cache, workload, threads), cache.getStats());
+        }
+    }
+
+    // Zipf-distributed reads of popular comments, interrupted every 100k reads by a scan over 20k other comments
+    private static long[] workload(long[] ids, Random random){
+        double[] cumulative = new double[ids.length];
+        double sum = 0;
+        for (int i = 0; i < ids.length; i++){
+            sum += 1.0 / Math.pow(i + 1, 0.9);
+            cumulative[i] = sum;
+        }
+        long[] workload = new long[READS];
+        int scanStart = ids.length / 2;
+        for (int i = 0; i < READS; i++){
+            if (i % 100_000 >= 80_000){
+                workload[i] = ids[scanStart++ % ids.length];
+            } else {
+                int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                workload[i] = ids[Math.min(index < 0 ? -index - 1 : index, ids.length - 1)];
+            }
+        }
+        return workload;
+    }
+
+    private static double replay(AddressableCommentRepository repository, long[] workload){
+        long length = 0;
+        long start = System.nanoTime();
+        for (long id : workload){
+            length += repository.findComment(id).getText().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (length < 0){
+            System.out.println(length);
+        }
+        return (double) elapsed / workload.length;
+    }
+
+    // Every thread replays the whole workload from its own starting point; returns wall time per read over all threads
+    private static double replayConcurrently(AddressableCommentRepository repository, long[] workload, int threads){
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++){
+            int offset = (int) ((long) workload.length * t / threads);
+            workers[t] = new Thread(() -> {
+                long length = 0;
+                for (int i = 0; i < workload.length; i++){
+                    length += repository.findComment(workload[(offset + i) % workload.length]).getText().length();
+                }
+                if (length < 0){
+                    System.out.println(length);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers){
+            try {
+                worker.join();
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the readers", e);
+            }
+        }
+        return (double) (System.nanoTime() - start) / ((long) workload.length * threads);
+    }
+
+    // Baseline: access-ordered LinkedHashMap evicting the least recently used comment
+    private static final class LruCommentRepository implements AddressableCommentRepository {
+        private final AddressableCommentRepository delegate;
+        private final Map<Long, Comment> cache;
+        private long hits;
+        private long misses;
+
+        LruCommentRepository(AddressableCommentRepository delegate, int maximumSize){
+            this.delegate = delegate;
+            this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Comment> eldest){
+                    return size() > maximumSize;
+                }
+            };
+        }
+
+        @Override
+        public long append(Comment comment){
+            return delegate.append(comment);
+        }
+
+        @Override
+        public void scan(IdentifiedCommentConsumer consumer){
+            delegate.scan(consumer);
+        }
+
+        // Synchronized so it can be shared by the concurrent run; the backing store is read outside the lock
+        @Override
+        public Comment findComment(long id){
+            synchronized (this){
+                Comment comment = cache.get(id);
+                if (comment != null){
+                    hits++;
+                    return comment;
+                }
+                misses++;
+            }
+            Comment comment = delegate.findComment(id);
+            synchronized (this){
+                cache.put(id, comment);
+            }
+            return comment;
+        }
+
+        synchronized double hitRate(){
+            return (double) hits / (hits + misses);
+        }
+    }
+}
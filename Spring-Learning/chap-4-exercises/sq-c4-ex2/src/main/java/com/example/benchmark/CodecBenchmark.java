@@ -0,0 +1,145 @@
+package com.example.benchmark;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import com.example.codec.*;
+import com.example.model.*;
+
+/**
+ * Compares encode and decode throughput and record size of {@link CommentCodec} with Java serialization
+ * and with a minimal hand-written JSON encoding (no library, so it is a lower bound for JSON cost).
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.CodecBenchmark -Dexec.args="1000000"
+ */
+public class CodecBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Comment[] comments = new Comment[1000];
+        for (int i = 0; i < comments.length; i++){
+            comments[i] = new Comment();
+            comments[i].setAuthor("author-" + i);
+            comments[i].setText("Benchmark comment number " + i + " about the \"last\" release");
+        }
+        long timestamp = System.currentTimeMillis();
+
+        System.out.printf("%-14s %14s %14s %12s%n", "format", "encode ops/s", "decode ops/s", "bytes");
+        for (int round = 0; round < 2; round++){
+            boolean print = round == 1;
+            measure(print, "codec", count, comments, c -> CommentCodec.encode(c, timestamp),
+                    bytes -> CommentCodec.decode(bytes).getText().length());
+            measure(print, "codec (lazy)", count, comments, c -> CommentCodec.encode(c, timestamp),
+                    bytes -> (int) CommentCodec.decode(bytes).getTimestamp());
+            measure(print, "java serial", Math.max(1, count / 10), comments, c -> serialize(c, timestamp),
+                    bytes -> deserialize(bytes).text().length());
+            measure(print, "json", count, comments, c -> toJson(c, timestamp),
+                    bytes -> fromJson(bytes).getText().length());
+        }
+
+        // Encoding into one reused buffer avoids the per-record array
+        ByteBuffer buffer = ByteBuffer.allocate(16 * 1024 * 1024);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++){
+            if (buffer.remaining() < 256){
+                buffer.clear();
+            }
+            CommentCodec.encode(comments[i % comments.length], timestamp, buffer);
+        }
+        System.out.printf("%-14s %14.0f%n", "codec (buffer)", count / ((System.nanoTime() - start) / 1e9));
+    }
+
+    private static void measure(boolean print, String name, int count, Comment[] comments,
+                                Encoder encoder, Decoder decoder) throws Exception {
+        byte[][] encoded = new byte[comments.length][];
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++){
+            encoded[i % encoded.length] = encoder.encode(comments[i % comments.length]);
+        }
+        double encodeRate = count / ((System.nanoTime() - start) / 1e9);
+
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++){
+            checksum += decoder.decode(encoded[i % encoded.length]);
+        }
+        double decodeRate = count / ((System.nanoTime() - start) / 1e9);
+        if (print){
+            System.out.printf("%-14s %14.0f %14.0f %12d%n", name, encodeRate, decodeRate, encoded[1].length);
+        }
+        if (checksum == 42){
+            System.out.println();
+        }
+    }
+
+    private static byte[] serialize(Comment comment, long timestamp) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)){
+            out.writeObject(new SerializedComment(comment.getAuthor(), comment.getText(), timestamp));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SerializedComment deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))){
+            return (SerializedComment) in.readObject();
+        }
+    }
+
+    private static byte[] toJson(Comment comment, long timestamp){
+        StringBuilder json = new StringBuilder(96).append("{\"author\":");
+        quote(json, comment.getAuthor()).append(",\"text\":");
+        quote(json, comment.getText()).append(",\"timestamp\":").append(timestamp).append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static StringBuilder quote(StringBuilder json, String value){
+        json.append('"');
+        for (int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\'){
+                json.append('\\');
+            }
+            json.append(c);
+        }
+        return json.append('"');
+    }
+
+    // Parses only the shape written by toJson
+    private static Comment fromJson(byte[] bytes){
+        String json = new String(bytes, StandardCharsets.UTF_8);
+        int[] position = {json.indexOf(':') + 1};
+        var comment = new Comment();
+        comment.setAuthor(unquote(json, position));
+        position[0] = json.indexOf(':', position[0]) + 1;
+        comment.setText(unquote(json, position));
+        return comment;
+    }
+
+    private static String unquote(String json, int[] position){
+        StringBuilder value = new StringBuilder();
+        int i = position[0] + 1;
+        for (; json.charAt(i) != '"'; i++){
+            char c = json.charAt(i);
+            value.append(c == '\\' ? json.charAt(++i) : c);
+        }
+        position[0] = i + 1;
+        return value.toString();
+    }
+
+    private record SerializedComment(String author, String text, long timestamp) implements Serializable {
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        byte[] encode(Comment comment) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        int decode(byte[] bytes) throws Exception;
+    }
+}
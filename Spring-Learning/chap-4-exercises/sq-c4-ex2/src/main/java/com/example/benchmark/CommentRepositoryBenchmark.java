@@ -0,0 +1,77 @@
+package com.example.benchmark;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.Config.*;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Compares row-at-a-time inserts with JDBC batch inserts against the embedded database.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.CommentRepositoryBenchmark
+ * -Dexec.args="10000,100000,1000000 100,1000,10000" (comment counts, then batch sizes).
+ */
+public class CommentRepositoryBenchmark {
+
+    public static void main(String[] args) {
+        int[] counts = parse(args.length > 0 ? args[0] : "10000,100000,1000000");
+        int[] batchSizes = parse(args.length > 1 ? args[1] : "100,1000,10000");
+
+        try (var context = new AnnotationConfigApplicationContext(ProjectConfig.class)) {
+            var jdbcTemplate = context.getBean(JdbcTemplate.class);
+            var repository = context.getBean(DBCommentRepository.class);
+
+            System.out.printf("%-12s %-14s %12s %14s%n", "comments", "mode", "millis", "rows/sec");
+            for (int count : counts){
+                List<Comment> comments = generate(count);
+
+                // Warm up the insert path once before measuring
+                repository.storeComments(comments.subList(0, Math.min(count, 10_000)));
+                repository.deleteAll();
+
+                long start = System.nanoTime();
+                for (Comment comment : comments){
+                    repository.storeComment(comment);
+                }
+                report(count, "row", start, repository);
+
+                for (int batchSize : batchSizes){
+                    var batched = new DBCommentRepository(jdbcTemplate, batchSize);
+                    start = System.nanoTime();
+                    batched.storeComments(comments);
+                    report(count, "batch " + batchSize, start, repository);
+                }
+            }
+        }
+    }
+
+    private static void report(int count, String mode, long start, DBCommentRepository repository){
+        long elapsed = System.nanoTime() - start;
+        if (repository.countComments() != count){
+            throw new IllegalStateException("Expected " + count + " rows but found " + repository.countComments());
+        }
+        repository.deleteAll();
+        System.out.printf("%-12d %-14s %12d %14.0f%n", count, mode, elapsed / 1_000_000, count / (elapsed / 1e9));
+    }
+
+    private static List<Comment> generate(int count){
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++){
+            var comment = new Comment();
+            comment.setAuthor("author-" + (i % 1000));
+            comment.setText("Benchmark comment number " + i);
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    private static int[] parse(String csv){
+        String[] parts = csv.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++){
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
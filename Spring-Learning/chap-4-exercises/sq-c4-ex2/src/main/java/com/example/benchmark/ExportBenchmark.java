@@ -0,0 +1,135 @@
+package com.example.benchmark;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReference;
+import com.example.export.*;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Exports the memory-mapped log with transferTo, a tenth of it through a filter, and an in-memory store as JSON
+ * lines, then interrupts an export halfway and resumes it from the last checkpoint to check that nothing is lost or written twice.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.ExportBenchmark -Dexec.args="2000000"
+ */
+public class ExportBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path directory = Files.createTempDirectory("comment-export");
+        Path logExport = directory.resolve("comments.log");
+        Path jsonExport = directory.resolve("comments.jsonl");
+        Path filteredExport = directory.resolve("filtered.log");
+
+        try (MappedLogCommentRepository log = new MappedLogCommentRepository(directory.resolve("log"))){
+            CompactCommentStore store = new CompactCommentStore(count);
+            for (int i = 0; i < count; i++){
+                Comment comment = new Comment();
+                comment.setAuthor("author-" + i % 500);
+                comment.setText("Exported comment number " + i + " with a \"quoted\" word");
+                log.append(comment);
+                store.append(comment);
+            }
+            log.flush();
+
+            for (int round = 0; round < 2; round++){
+                long start = System.nanoTime();
+                try (FileChannel out = open(logExport)){
+                    new CommentExporter().exportLog(log, ExportCursor.START, ExportCursor.END, out);
+                }
+                report(round, "log transferTo", logExport, start);
+
+                start = System.nanoTime();
+                try (FileChannel out = open(filteredExport)){
+                    new CommentExporter().exportLog(log, ExportCursor.START, ExportCursor.END,
+                            comment -> comment.getAuthor().endsWith("0"), out);
+                }
+                report(round, "log filtered", filteredExport, start);
+
+                start = System.nanoTime();
+                try (FileChannel out = open(jsonExport)){
+                    new CommentExporter().exportJsonLines(store, ExportCursor.START, ExportCursor.END, comment -> true, out);
+                }
+                report(round, "jsonl (compact)", jsonExport, start);
+            }
+
+            // Resume: the first export fails halfway, the second continues from the last saved cursor
+            long fullSize = Files.size(logExport);
+            AtomicReference<ExportCursor> saved = new AtomicReference<>(ExportCursor.START);
+            Path resumed = directory.resolve("resumed.log");
+            try (FileChannel out = open(resumed)){
+                new CommentExporter(1024 * 1024, saved::set).exportLog(log, ExportCursor.START, ExportCursor.END,
+                        new FailingChannel(out, fullSize / 2));
+            } catch (RuntimeException e){
+                System.out.println("Interrupted export: " + e.getMessage() + ", resuming from " + saved.get());
+            }
+            // Drop whatever was written after the checkpoint before continuing
+            try (FileChannel out = FileChannel.open(resumed, StandardOpenOption.WRITE)){
+                out.truncate(saved.get().exportedBytes());
+                out.position(saved.get().exportedBytes());
+                new CommentExporter(1024 * 1024, saved::set).exportLog(log, ExportCursor.parse(saved.get().toString()),
+                        ExportCursor.END, out);
+            }
+            long[] records = new long[1];
+            try (FileChannel in = FileChannel.open(resumed, StandardOpenOption.READ)){
+                ByteBuffer bytes = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+                MappedLogCommentRepository.forEachRecord(bytes, (position, timestamp, comment) -> records[0]++);
+            }
+            System.out.printf("Resumed export: %d bytes, %d records (full export: %d bytes, %d records)%n",
+                    Files.size(resumed), records[0], fullSize, count);
+        } finally {
+            try (var paths = Files.walk(directory)){
+                paths.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static FileChannel open(Path file) throws Exception {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void report(int round, String name, Path file, long start) throws Exception {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long bytes = Files.size(file);
+        if (round == 1){
+            System.out.printf("%-16s %8d MB %8.0f ms %8.0f MB/s%n", name, bytes >> 20, seconds * 1000, bytes / seconds / (1 << 20));
+        }
+    }
+
+    // Channel that fails once the given number of bytes has been written, like a dropped connection
+    private static final class FailingChannel implements WritableByteChannel {
+        private final WritableByteChannel target;
+        private long remaining;
+
+        FailingChannel(WritableByteChannel target, long limit){
+            this.target = target;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws java.io.IOException {
+            if (remaining <= 0){
+                throw new java.io.IOException("connection reset");
+            }
+            int limit = source.limit();
+            source.limit((int) Math.min(limit, source.position() + remaining));
+            int written = target.write(source);
+            source.limit(limit);
+            remaining -= written;
+            return written;
+        }
+
+        @Override
+        public boolean isOpen(){
+            return target.isOpen();
+        }
+
+        @Override
+        public void close() throws java.io.IOException {
+            target.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.benchmark;
+import java.util.ArrayList;
+import java.util.List;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Compares the heap used by comments held as {@link Comment} objects with the heap used by {@link CompactCommentStore}.
+ * Heap is measured as used memory after a full GC, before and after loading the comments. Authors are created as new
+ * Strings per comment, the way rows read from a database or a file arrive.
+ * Run with: MAVEN_OPTS=-Xmx4g mvn compile exec:java -Dexec.mainClass=com.example.benchmark.FootprintBenchmark -Dexec.args="1000000,10000000"
+ */
+public class FootprintBenchmark {
+    private static final int AUTHORS = 10_000;
+
+    public static void main(String[] args){
+        String[] counts = (args.length > 0 ? args[0] : "1000000,10000000").split(",");
+        System.out.printf("%-12s %-10s %14s %16s%n", "comments", "layout", "heap MB", "bytes/comment");
+        for (String value : counts){
+            int count = Integer.parseInt(value.trim());
+
+            long before = usedHeap();
+            List<Comment> comments = new ArrayList<>(count);
+            for (int i = 0; i < count; i++){
+                comments.add(comment(i));
+            }
+            long used = usedHeap() - before;
+            // Using the list after measuring keeps the JIT from treating it as garbage during the GC
+            report(comments.size(), "pojo", used);
+            comments = null;
+
+            before = usedHeap();
+            CompactCommentStore store = new CompactCommentStore(count);
+            for (int i = 0; i < count; i++){
+                store.append(comment(i));
+            }
+            used = usedHeap() - before;
+            report(store.size(), "compact", used);
+            System.out.printf("%-12s %-10s %14.1f%n", "", "(computed)", store.footprintBytes() / 1e6);
+            store = null;
+        }
+    }
+
+    private static Comment comment(int i){
+        var comment = new Comment();
+        comment.setAuthor(new String("author-" + (i % AUTHORS)));
+        comment.setText("Benchmark comment number " + i + " about the last release");
+        return comment;
+    }
+
+    private static void report(int count, String layout, long bytes){
+        System.out.printf("%-12d %-10s %14.1f %16.1f%n", count, layout, bytes / 1e6, (double) bytes / count);
+    }
+
+    private static long usedHeap(){
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
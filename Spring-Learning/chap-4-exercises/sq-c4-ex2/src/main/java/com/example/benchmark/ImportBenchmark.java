@@ -0,0 +1,94 @@
+package com.example.benchmark;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import com.example.importer.*;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Generates a CSV and a JSONL file (with quoted commas, embedded newlines and escapes, plus some malformed lines)
+ * and imports them with one parsing thread and with every core, printing records/sec and the peak heap in use.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.ImportBenchmark -Dexec.args="2000000"
+ */
+public class ImportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path directory = Files.createTempDirectory("comment-import");
+        Path csv = directory.resolve("comments.csv");
+        Path jsonl = directory.resolve("comments.jsonl");
+        try {
+            write(csv, jsonl, count);
+            System.out.printf("Generated %d records: CSV %d MB, JSONL %d MB%n", count, Files.size(csv) >> 20, Files.size(jsonl) >> 20);
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (Path file : List.of(csv, jsonl)){
+                for (int parallelism : cores == 1 ? new int[] {1} : new int[] {1, cores}){
+                    run(file, parallelism, count / 1000);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(jsonl);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void run(Path file, int parallelism, long malformed){
+        LongAdder stored = new LongAdder();
+        CommentRepository repository = new CommentRepository() {
+            @Override
+            public void storeComment(Comment comment){
+                stored.increment();
+            }
+
+            @Override
+            public void storeComments(List<Comment> comments){
+                stored.add(comments.size());
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        AtomicLong peakHeap = new AtomicLong();
+        Runtime runtime = Runtime.getRuntime();
+        var importer = new BulkCommentImporter(repository, pool, BulkCommentImporter.DEFAULT_BATCH_SIZE, 16 * 1024 * 1024);
+        var result = importer.importFile(file, ImportFormat.of(file),
+                progress -> peakHeap.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max));
+        pool.shutdown();
+        System.out.printf("%-15s threads=%d %s, stored=%d, peak heap %d MB%n",
+                file.getFileName(), parallelism, result, stored.sum(), peakHeap.get() >> 20);
+        if (result.rejected() != malformed){
+            System.out.printf("  expected %d rejected records%n", malformed);
+        }
+    }
+
+    private static void write(Path csv, Path jsonl, int count) throws IOException {
+        try (BufferedWriter csvOut = Files.newBufferedWriter(csv, StandardCharsets.UTF_8);
+             BufferedWriter jsonOut = Files.newBufferedWriter(jsonl, StandardCharsets.UTF_8)){
+            csvOut.write("author,text\n");
+            for (int i = 0; i < count; i++){
+                String author = "author-" + (i % 10_000);
+                if (i % 1000 == 999){
+                    // Malformed records that must be rejected; a stray quote must not swallow the lines after it
+                    csvOut.write(i % 2000 == 1999 ? author + " said \"hi\n" : author + "\n");
+                    jsonOut.write("{\"author\": \"" + author + "\"\n");
+                    continue;
+                }
+                String text = switch (i % 4){
+                    case 0 -> "Imported comment " + i;
+                    case 1 -> "Comment " + i + ", with a comma";
+                    case 2 -> "Comment " + i + " says \"hi\"\non two lines";
+                    default -> "Comment " + i + " caf\u00e9";
+                };
+                csvOut.write(author + "," + (i % 4 == 0 || i % 4 == 3 ? text : "\"" + text.replace("\"", "\"\"") + "\"") + "\n");
+                jsonOut.write("{\"author\": \"" + author + "\", \"text\": \"" + text.replace("\"", "\\\"").replace("\n", "\\n")
+                        + "\", \"likes\": " + (i % 7) + "}\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.benchmark;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Measures sequential append throughput of the memory-mapped comment log, then reopens the log
+ * to check that recovery finds every record.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.MappedLogBenchmark -Dexec.args="1000000"
+ */
+public class MappedLogBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path directory = Files.createTempDirectory("comment-log");
+        try {
+            Comment[] comments = new Comment[1000];
+            for (int i = 0; i < comments.length; i++){
+                comments[i] = new Comment();
+                comments[i].setAuthor("author-" + i);
+                comments[i].setText("Benchmark comment number " + i);
+            }
+
+            long start = System.nanoTime();
+            try (var log = new MappedLogCommentRepository(directory)){
+                for (int i = 0; i < count; i++){
+                    log.storeComment(comments[i % comments.length]);
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Appended %d comments in %d ms (%.0f comments/sec)%n",
+                    count, elapsed / 1_000_000, count / (elapsed / 1e9));
+
+            start = System.nanoTime();
+            var recovered = new AtomicLong();
+            try (var log = new MappedLogCommentRepository(directory)){
+                log.forEach((position, timestamp, comment) -> recovered.incrementAndGet());
+            }
+            System.out.printf("Recovered and scanned %d comments in %d ms%n",
+                    recovered.get(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)){
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
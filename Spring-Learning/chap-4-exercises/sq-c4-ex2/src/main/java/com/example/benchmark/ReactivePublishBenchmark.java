@@ -0,0 +1,36 @@
+package com.example.benchmark;
+import java.util.concurrent.locks.LockSupport;
+import com.example.model.*;
+import com.example.services.*;
+import com.example.services.ReactiveCommentPublisher.OverflowStrategy;
+
+/**
+ * Floods the reactive publisher from one producer while storing each comment takes about 50us, once with
+ * the block strategy and once with the drop strategy, and reports throughput, throttling and buffer lag.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.ReactivePublishBenchmark -Dexec.args="20000 256"
+ */
+public class ReactivePublishBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int bufferSize = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        for (OverflowStrategy strategy : OverflowStrategy.values()){
+            var publisher = new ReactiveCommentPublisher(
+                    comment -> LockSupport.parkNanos(50_000),
+                    comment -> { },
+                    bufferSize, ReactiveCommentPublisher.DEFAULT_PREFETCH, strategy);
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++){
+                var comment = new Comment();
+                comment.setAuthor("author-" + (i % 100));
+                comment.setText("Benchmark comment number " + i);
+                publisher.publishComment(comment);
+            }
+            long submitNanos = System.nanoTime() - start;
+            publisher.destroy();
+            long totalNanos = System.nanoTime() - start;
+            System.out.printf("%-6s submit %.0f comments/sec, drained in %d ms: %s%n", strategy,
+                    count / (submitNanos / 1e9), totalNanos / 1_000_000, publisher.getStats());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.benchmark;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import com.example.model.*;
+import com.example.search.*;
+
+/**
+ * Measures how fast the in-memory search index is built and how long term and phrase queries take.
+ * Comment text is drawn from a vocabulary with a Zipf-like distribution, so a few words are very common
+ * and most are rare, like real text.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.SearchBenchmark -Dexec.args="1000000"
+ */
+public class SearchBenchmark {
+    private static final int VOCABULARY = 20_000;
+    private static final int QUERIES = 2_000;
+
+    public static void main(String[] args){
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++){
+            words[i] = "w" + Integer.toString(i, 36);
+        }
+        double[] cumulative = zipf(VOCABULARY);
+
+        Comment[] comments = new Comment[count];
+        for (int i = 0; i < count; i++){
+            StringBuilder text = new StringBuilder();
+            int length = 5 + random.nextInt(25);
+            for (int w = 0; w < length; w++){
+                text.append(w == 0 ? "" : " ").append(words[sample(cumulative, random)]);
+            }
+            comments[i] = new Comment();
+            comments[i].setAuthor("author-" + (i % 1000));
+            comments[i].setText(text.toString());
+        }
+
+        CommentSearchIndex index = new CommentSearchIndex();
+        long start = System.nanoTime();
+        for (Comment comment : comments){
+            index.addComment(comment);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Indexed %d comments in %d ms (%.0f docs/sec)%n", count, elapsed / 1_000_000, count / (elapsed / 1e9));
+
+        // Warm up both query paths before measuring
+        runQueries(index, words, cumulative, new Random(1), false);
+        runQueries(index, words, cumulative, new Random(1), true);
+        report("Term query (2 terms)", runQueries(index, words, cumulative, new Random(7), false));
+        report("Phrase query (2 terms)", runQueries(index, words, cumulative, new Random(7), true));
+    }
+
+    private static long[] runQueries(CommentSearchIndex index, String[] words, double[] cumulative, Random random, boolean phrase){
+        long[] latencies = new long[QUERIES];
+        long hits = 0;
+        for (int i = 0; i < QUERIES; i++){
+            String query = words[sample(cumulative, random)] + " " + words[sample(cumulative, random)];
+            long start = System.nanoTime();
+            List<SearchHit> result = phrase ? index.searchPhrase(query, 10) : index.search(query, 10);
+            latencies[i] = System.nanoTime() - start;
+            hits += result.size();
+        }
+        if (hits < 0){
+            System.out.println(hits);
+        }
+        return latencies;
+    }
+
+    private static void report(String name, long[] latencies){
+        Arrays.sort(latencies);
+        System.out.printf("%s: p50=%.1fus p99=%.1fus max=%.1fus%n", name,
+                latencies[latencies.length / 2] / 1e3,
+                latencies[(int) (latencies.length * 0.99)] / 1e3,
+                latencies[latencies.length - 1] / 1e3);
+    }
+
+    private static double[] zipf(int size){
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++){
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++){
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, Random random){
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.benchmark;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import com.example.aot.*;
+
+/**
+ * Cold start of the context in four modes, each run in a fresh JVM: classpath scanning, scanning through the
+ * compile-time component index, the hand-written functional registrations and the AOT-generated registrations.
+ * Build with mvn -P aot compile first so the AOT mode is available, then run with:
+ * mvn exec:java -Dexec.mainClass=com.example.benchmark.StartupBenchmark -Dexec.args="10"
+ */
+public class StartupBenchmark {
+
+    private record Mode(String name, String flag) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<Mode> modes = new ArrayList<>(List.of(
+                new Mode("scan", "-Dspring.index.ignore=true"),
+                new Mode("index", "-Dspring.index.ignore=false"),
+                new Mode("functional", "-D" + ContextFactory.FUNCTIONAL_PROPERTY + "=true")));
+        if (StartupBenchmark.class.getClassLoader().getResource("com/example/Config/ProjectConfig__ApplicationContextInitializer.class") != null){
+            modes.add(new Mode("aot", "-Dspring.aot.enabled=true"));
+        } else {
+            System.out.println("AOT classes not found, skipping aot mode (build with mvn -P aot compile)");
+        }
+
+        String classpath = classpath();
+        long[][] contextMicros = new long[modes.size()][runs];
+        long[][] readyMicros = new long[modes.size()][runs];
+        // Interleave the modes so disk cache and CPU frequency effects hit all of them alike
+        for (int run = 0; run < runs; run++){
+            for (int m = 0; m < modes.size(); m++){
+                long[] result = probe(classpath, modes.get(m).flag());
+                contextMicros[m][run] = result[0];
+                readyMicros[m][run] = result[1];
+            }
+        }
+
+        System.out.printf("%-10s %20s %20s %20s%n", "mode", "context median (ms)", "context min (ms)", "JVM to ready (ms)");
+        for (int m = 0; m < modes.size(); m++){
+            Arrays.sort(contextMicros[m]);
+            Arrays.sort(readyMicros[m]);
+            System.out.printf("%-10s %20.1f %20.1f %20.1f%n", modes.get(m).name(),
+                    contextMicros[m][runs / 2] / 1000.0, contextMicros[m][0] / 1000.0, readyMicros[m][runs / 2] / 1000.0);
+        }
+    }
+
+    private static long[] probe(String classpath, String flag) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, flag, "-cp", classpath, StartupProbe.class.getName())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        if (process.waitFor() != 0){
+            throw new IllegalStateException("Startup probe failed with " + flag + ": " + output);
+        }
+        String[] lines = output.split("\n");
+        String[] values = lines[lines.length - 1].trim().split(" ");
+        return new long[] {Long.parseLong(values[0]), Long.parseLong(values[1])};
+    }
+
+    // Under exec:java the project classpath is only known to the class loader, not to java.class.path
+    private static String classpath(){
+        if (StartupBenchmark.class.getClassLoader() instanceof URLClassLoader loader){
+            List<String> entries = new ArrayList<>();
+            for (URL url : loader.getURLs()){
+                entries.add(new File(url.getPath()).getPath());
+            }
+            return String.join(File.pathSeparator, entries);
+        }
+        return System.getProperty("java.class.path");
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.codec;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import com.example.model.*;
+
+/**
+ * Binary format for comments, shared by anything that stores or sends them.
+ *
+ * A record is {@code [byte version][byte flags][varlong timestamp, if flagged][varint authorLength][author]
+ * [varint textLength][text]}, with author and text in UTF-8 and lengths as unsigned LEB128 varints, so a typical
+ * record is only a few bytes larger than its text. Readers reject versions they do not know.
+ *
+ * {@link #decode(ByteBuffer, int)} does not copy anything: it returns an {@link EncodedComment} view over the buffer
+ * that decodes author and text the first time they are read.
+ */
+public final class CommentCodec {
+
+    public static final byte VERSION = 1;
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    static final int FLAG_TIMESTAMP = 1;
+
+    private CommentCodec(){
+    }
+
+    // Exact number of bytes encode will write for the comment
+    public static int encodedSize(Comment comment, long timestamp){
+        int authorLength = utf8Length(comment.getAuthor());
+        int textLength = utf8Length(comment.getText());
+        return 2 + (timestamp == NO_TIMESTAMP ? 0 : varLongSize(timestamp))
+                + varIntSize(authorLength) + authorLength + varIntSize(textLength) + textLength;
+    }
+
+    public static byte[] encode(Comment comment){
+        return encode(comment, NO_TIMESTAMP);
+    }
+
+    public static byte[] encode(Comment comment, long timestamp){
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(comment, timestamp));
+        encode(comment, timestamp, buffer);
+        return buffer.array();
+    }
+
+    // Writes the record at the buffer's position and advances it; throws BufferOverflowException if it does not fit
+    public static int encode(Comment comment, long timestamp, ByteBuffer out){
+        // String.getBytes has an intrinsic fast path for Latin-1 strings that beats encoding char by char
+        byte[] author = comment.getAuthor().getBytes(StandardCharsets.UTF_8);
+        byte[] text = comment.getText().getBytes(StandardCharsets.UTF_8);
+        int size = 2 + (timestamp == NO_TIMESTAMP ? 0 : varLongSize(timestamp))
+                + varIntSize(author.length) + author.length + varIntSize(text.length) + text.length;
+        if (out.remaining() < size){
+            throw new BufferOverflowException();
+        }
+        out.put(VERSION);
+        out.put((byte) (timestamp == NO_TIMESTAMP ? 0 : FLAG_TIMESTAMP));
+        if (timestamp != NO_TIMESTAMP){
+            putVarLong(out, timestamp);
+        }
+        putVarLong(out, author.length);
+        out.put(author);
+        putVarLong(out, text.length);
+        out.put(text);
+        return size;
+    }
+
+    public static EncodedComment decode(byte[] bytes){
+        return decode(ByteBuffer.wrap(bytes), 0);
+    }
+
+    // View of the record starting at the given absolute offset; the buffer's position and limit are not changed
+    public static EncodedComment decode(ByteBuffer buffer, int offset){
+        return new EncodedComment(buffer, offset);
+    }
+
+    // Visits the records laid out back to back between the buffer's position and limit
+    public static int forEach(ByteBuffer buffer, Consumer<? super EncodedComment> consumer){
+        int count = 0;
+        int offset = buffer.position();
+        while (offset < buffer.limit()){
+            EncodedComment comment = new EncodedComment(buffer, offset);
+            consumer.accept(comment);
+            offset += comment.encodedLength();
+            count++;
+        }
+        return count;
+    }
+
+    static int utf8Length(String value){
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++){
+            char c = value.charAt(i);
+            if (c >= 0x80){
+                if (c < 0x800){
+                    bytes++;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))){
+                    // Two chars become four bytes
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)){
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    static void putVarLong(ByteBuffer out, long value){
+        while ((value & ~0x7FL) != 0){
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int varIntSize(int value){
+        return varLongSize(value & 0xFFFFFFFFL);
+    }
+
+    static int varLongSize(long value){
+        int size = 1;
+        while ((value & ~0x7FL) != 0){
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static String utf8(ByteBuffer buffer, int offset, int length){
+        if (buffer.hasArray()){
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
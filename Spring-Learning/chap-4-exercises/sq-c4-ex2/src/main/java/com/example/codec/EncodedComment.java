@@ -0,0 +1,99 @@
+package com.example.codec;
+import java.nio.ByteBuffer;
+import com.example.model.*;
+
+/**
+ * Read-only {@link Comment} backed by an encoded record in a buffer. Creating it only reads the header;
+ * author and text are decoded on first access and kept, and their raw UTF-8 bytes can be read without decoding.
+ */
+public final class EncodedComment extends Comment {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final long timestamp;
+    private final int authorOffset;
+    private final int authorLength;
+    private final int textOffset;
+    private final int textLength;
+    private String author;
+    private String text;
+
+    EncodedComment(ByteBuffer buffer, int offset){
+        this.buffer = buffer;
+        this.offset = offset;
+        byte version = buffer.get(offset);
+        if (version != CommentCodec.VERSION){
+            throw new IllegalArgumentException("Unsupported comment format version " + version + " at offset " + offset);
+        }
+        int flags = buffer.get(offset + 1);
+        int[] position = {offset + 2};
+        this.timestamp = (flags & CommentCodec.FLAG_TIMESTAMP) != 0 ? varLong(buffer, position) : CommentCodec.NO_TIMESTAMP;
+        this.authorLength = (int) varLong(buffer, position);
+        this.authorOffset = position[0];
+        position[0] += authorLength;
+        this.textLength = (int) varLong(buffer, position);
+        this.textOffset = position[0];
+        if (authorLength < 0 || textLength < 0 || textOffset + textLength > buffer.limit()){
+            throw new IllegalArgumentException("Truncated comment record at offset " + offset);
+        }
+    }
+
+    @Override
+    public String getAuthor(){
+        if (author == null){
+            author = CommentCodec.utf8(buffer, authorOffset, authorLength);
+        }
+        return author;
+    }
+
+    @Override
+    public String getText(){
+        if (text == null){
+            text = CommentCodec.utf8(buffer, textOffset, textLength);
+        }
+        return text;
+    }
+
+    @Override
+    public void setAuthor(String author){
+        throw new UnsupportedOperationException("Encoded comments are read-only");
+    }
+
+    @Override
+    public void setText(String text){
+        throw new UnsupportedOperationException("Encoded comments are read-only");
+    }
+
+    public boolean hasTimestamp(){
+        return timestamp != CommentCodec.NO_TIMESTAMP;
+    }
+
+    public long getTimestamp(){
+        return timestamp;
+    }
+
+    // UTF-8 bytes of the author, sharing the underlying buffer
+    public ByteBuffer authorBytes(){
+        return buffer.slice(authorOffset, authorLength);
+    }
+
+    public ByteBuffer textBytes(){
+        return buffer.slice(textOffset, textLength);
+    }
+
+    // Size of the whole record, so the next record starts at offset + encodedLength()
+    public int encodedLength(){
+        return textOffset + textLength - offset;
+    }
+
+    private static long varLong(ByteBuffer buffer, int[] position){
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7){
+            byte b = buffer.get(position[0]++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0){
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at offset " + (position[0] - 1));
+    }
+}
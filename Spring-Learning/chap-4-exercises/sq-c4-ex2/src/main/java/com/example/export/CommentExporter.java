@@ -0,0 +1,213 @@
+package com.example.export;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Streams stored comments to a channel, such as a file or a socket, in steps.
+ *
+ * The memory-mapped log is exported as its own records with {@link MappedLogCommentRepository#transferTo}, so the
+ * bytes go straight from the segment files to the channel. With a filter every record has to be decoded to test it,
+ * so the export falls back to copying the matching records through a buffer. Sequential in-memory repositories are exported as JSON
+ * lines, which the bulk importer reads, through one reused buffer, so memory use does not depend on how many
+ * comments there are. After every completed step the checkpoint consumer receives the cursor to resume from if
+ * the export fails later.
+ */
+public class CommentExporter {
+
+    public static final long DEFAULT_STEP_BYTES = 8 * 1024 * 1024;
+
+    private final long stepBytes;
+    private final Consumer<ExportCursor> checkpoint;
+
+    public CommentExporter(){
+        this(DEFAULT_STEP_BYTES, cursor -> { });
+    }
+
+    public CommentExporter(long stepBytes, Consumer<ExportCursor> checkpoint){
+        if (stepBytes < 1){
+            throw new IllegalArgumentException("Step size must be positive");
+        }
+        this.stepBytes = stepBytes;
+        this.checkpoint = checkpoint;
+    }
+
+    // Exports the log records between the cursors and returns where the export ended
+    public ExportCursor exportLog(MappedLogCommentRepository log, ExportCursor from, ExportCursor to, WritableByteChannel out){
+        long position = from.position();
+        long exported = from.exportedBytes();
+        try {
+            while (true){
+                // The target is passed as is: wrapping it would make transferTo fall back to copying through a buffer
+                long next = log.transferTo(position, to.position(), stepBytes, out);
+                if (next == position){
+                    return new ExportCursor(position, exported);
+                }
+                exported += log.recordBytes(position, next);
+                position = next;
+                checkpoint.accept(new ExportCursor(position, exported));
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Export stopped at log position " + position, e);
+        }
+    }
+
+    // Exports only the log records whose comment matches the filter, copying record by record instead of with transferTo
+    public ExportCursor exportLog(MappedLogCommentRepository log, ExportCursor from, ExportCursor to,
+                                  Predicate<? super Comment> filter, WritableByteChannel out){
+        CountingChannel counting = new CountingChannel(out, from.exportedBytes());
+        long position = from.position();
+        try {
+            while (true){
+                long next = log.copyTo(position, to.position(), stepBytes, filter, counting);
+                if (next == position){
+                    return new ExportCursor(position, counting.written);
+                }
+                position = next;
+                checkpoint.accept(new ExportCursor(position, counting.written));
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Export stopped at log position " + position, e);
+        }
+    }
+
+    // Exports the comments with ids between the cursors that match the filter as JSON lines
+    public ExportCursor exportJsonLines(SequentialCommentRepository repository, ExportCursor from, ExportCursor to,
+                                        Predicate<? super Comment> filter, WritableByteChannel out){
+        JsonLineWriter writer = new JsonLineWriter(out, (int) Math.min(stepBytes, 1 << 20), from.exportedBytes());
+        long end = Math.min(to.position(), repository.size());
+        long id = from.position();
+        try {
+            while (id < end){
+                Comment comment = repository.findComment(id);
+                if (filter.test(comment)){
+                    long flushed = writer.write(comment);
+                    if (flushed >= 0){
+                        // The buffer was flushed before this comment, so everything before it is safely out
+                        checkpoint.accept(new ExportCursor(id, flushed));
+                    }
+                }
+                id++;
+            }
+            writer.flush();
+        } catch (IOException e){
+            throw new UncheckedIOException("Export stopped before comment " + id, e);
+        }
+        ExportCursor last = new ExportCursor(id, writer.written);
+        checkpoint.accept(last);
+        return last;
+    }
+
+    // Counts the bytes written, since the filtered records no longer add up to a span of the log
+    private static final class CountingChannel implements WritableByteChannel {
+        private final WritableByteChannel target;
+        private long written;
+
+        CountingChannel(WritableByteChannel target, long written){
+            this.target = target;
+            this.written = written;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            int count = target.write(source);
+            written += count;
+            return count;
+        }
+
+        @Override
+        public boolean isOpen(){
+            return target.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            target.close();
+        }
+    }
+
+    // Encodes {"author":...,"text":...} lines as UTF-8 into a fixed buffer and writes it out when full
+    private static final class JsonLineWriter {
+        private final WritableByteChannel out;
+        private final ByteBuffer buffer;
+        private long written;
+
+        JsonLineWriter(WritableByteChannel out, int capacity, long written){
+            this.out = out;
+            this.buffer = ByteBuffer.allocate(Math.max(capacity, 4096));
+            this.written = written;
+        }
+
+        // Returns the output size after flushing if the buffer had to be flushed to make room, -1 otherwise
+        long write(Comment comment) throws IOException {
+            byte[] author = escape(comment.getAuthor());
+            byte[] text = escape(comment.getText());
+            int size = author.length + text.length + 24;
+            long flushed = -1;
+            if (buffer.remaining() < size){
+                flush();
+                flushed = written;
+            }
+            if (buffer.remaining() < size){
+                // Larger than the whole buffer: write the line on its own
+                ByteBuffer line = ByteBuffer.allocate(size);
+                put(line, author, text);
+                drain(line.flip());
+                return flushed;
+            }
+            put(buffer, author, text);
+            return flushed;
+        }
+
+        void flush() throws IOException {
+            drain(buffer.flip());
+            buffer.clear();
+        }
+
+        private void drain(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()){
+                written += out.write(bytes);
+            }
+        }
+
+        private static void put(ByteBuffer target, byte[] author, byte[] text){
+            target.put(AUTHOR_PREFIX).put(author).put(TEXT_PREFIX).put(text).put(LINE_END);
+        }
+
+        private static final byte[] AUTHOR_PREFIX = "{\"author\":\"".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] TEXT_PREFIX = "\",\"text\":\"".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] LINE_END = "\"}\n".getBytes(StandardCharsets.US_ASCII);
+
+        private static byte[] escape(String value){
+            StringBuilder escaped = null;
+            for (int i = 0; i < value.length(); i++){
+                char c = value.charAt(i);
+                String replacement = switch (c){
+                    case '"' -> "\\\"";
+                    case '\\' -> "\\\\";
+                    case '\n' -> "\\n";
+                    case '\r' -> "\\r";
+                    case '\t' -> "\\t";
+                    default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+                };
+                if (replacement != null && escaped == null){
+                    escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+                }
+                if (escaped != null){
+                    if (replacement != null){
+                        escaped.append(replacement);
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+            return (escaped == null ? value : escaped.toString()).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.export;
+
+/**
+ * Where an export stopped: {@code position} is the log position for the memory-mapped log or the next comment id
+ * for sequential repositories, and {@code exportedBytes} is how much of the output is complete up to that point.
+ * When resuming, the output is cut back to {@code exportedBytes} and the export continues from {@code position}.
+ * The string form can be saved and parsed back.
+ */
+public record ExportCursor(long position, long exportedBytes) {
+
+    public static final ExportCursor START = new ExportCursor(0, 0);
+    public static final ExportCursor END = new ExportCursor(Long.MAX_VALUE, 0);
+
+    public ExportCursor {
+        if (position < 0 || exportedBytes < 0){
+            throw new IllegalArgumentException("Cursor position and byte count must not be negative");
+        }
+    }
+
+    public static ExportCursor parse(String value){
+        int separator = value.indexOf(':');
+        if (separator < 0){
+            throw new IllegalArgumentException("Not an export cursor: " + value);
+        }
+        return new ExportCursor(Long.parseLong(value.substring(0, separator).trim()),
+                Long.parseLong(value.substring(separator + 1).trim()));
+    }
+
+    @Override
+    public String toString(){
+        return position + ":" + exportedBytes;
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.importer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import com.example.model.*;
+import com.example.repositories.*;
+
+/**
+ * Imports comments from CSV or JSONL files of any size into a {@link CommentRepository}.
+ *
+ * The file is memory-mapped one window at a time. Each window is cut into chunks at record boundaries
+ * (for CSV, newlines inside quoted fields are skipped; a quote that does not open a field is plain text) and the chunks are parsed in parallel on a fork-join pool.
+ * Every chunk task stores its comments through {@link CommentRepository#storeComments(List)} in batches, so the
+ * repository must accept concurrent calls. Only one window is mapped and at most one batch per task is held on
+ * the heap, so memory use does not grow with the file.
+ */
+public class BulkCommentImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    // CSV scan states: a quote only opens a quoted field at the start of a field, elsewhere it is a plain byte
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+
+    private final CommentRepository commentRepository;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final int windowSize;
+
+    public BulkCommentImporter(CommentRepository commentRepository){
+        this(commentRepository, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    public BulkCommentImporter(CommentRepository commentRepository, ForkJoinPool pool, int batchSize, int windowSize){
+        if (batchSize < 1 || windowSize < 1024){
+            throw new IllegalArgumentException("Batch size must be positive and the window at least 1024 bytes");
+        }
+        this.commentRepository = commentRepository;
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.windowSize = windowSize;
+    }
+
+    public ImportResult importFile(Path file){
+        return importFile(file, ImportFormat.of(file), progress -> { });
+    }
+
+    // Imports the whole file, calling the listener after every window
+    public ImportResult importFile(Path file, ImportFormat format, ProgressListener listener){
+        long start = System.nanoTime();
+        LongAdder imported = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            long size = channel.size();
+            long position = 0;
+            int window = windowSize;
+            boolean first = true;
+            while (position < size){
+                int length = (int) Math.min(window, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int[] boundaries = boundaries(buffer, length, last, format, pool.getParallelism() * 4);
+                if (boundaries == null){
+                    // Not a single complete record in the window: map a larger one and try again
+                    if (window >= Integer.MAX_VALUE / 2){
+                        throw new IllegalStateException("Record at offset " + position + " is larger than 1GB");
+                    }
+                    window *= 2;
+                    continue;
+                }
+                int from = 0;
+                if (first && format == ImportFormat.CSV){
+                    int lineEnd = indexOf(buffer, (byte) '\n', 0, length);
+                    if (RecordParser.isCsvHeader(buffer, 0, lineEnd < 0 ? length : lineEnd)){
+                        from = lineEnd < 0 ? length : lineEnd + 1;
+                    }
+                }
+                first = false;
+
+                List<ParseChunk> tasks = new ArrayList<>();
+                for (int i = 0; i + 1 < boundaries.length; i++){
+                    int chunkStart = Math.max(from, boundaries[i]);
+                    if (chunkStart < boundaries[i + 1]){
+                        tasks.add(new ParseChunk(buffer, chunkStart, boundaries[i + 1], format, imported, rejected));
+                    }
+                }
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute(){
+                        invokeAll(tasks);
+                    }
+                });
+
+                position += boundaries[boundaries.length - 1];
+                window = windowSize;
+                listener.onProgress(new ImportProgress(position, size, imported.sum(), rejected.sum(), System.nanoTime() - start));
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Cannot import comments from " + file, e);
+        }
+        return new ImportResult(imported.sum(), rejected.sum(), System.nanoTime() - start);
+    }
+
+    // Offsets that cut the window into about the given number of chunks at record starts; the last one is where
+    // the next window starts. Returns null if the window holds no complete record.
+    private static int[] boundaries(MappedByteBuffer buffer, int length, boolean last, ImportFormat format, int chunks){
+        int end = last ? length : lastRecordEnd(buffer, length, format);
+        if (end <= 0){
+            return null;
+        }
+        int target = Math.max(1, end / chunks);
+        int[] boundaries = new int[chunks + 1];
+        int count = 1;
+        if (format == ImportFormat.JSONL){
+            // JSON strings escape newlines, so every newline ends a record
+            int next = target;
+            while (next < end && count < chunks){
+                int newline = indexOf(buffer, (byte) '\n', next, end);
+                if (newline < 0){
+                    break;
+                }
+                boundaries[count++] = newline + 1;
+                next = newline + 1 + target;
+            }
+        } else {
+            int state = FIELD_START;
+            int next = target;
+            for (int i = 0; i < end && count < chunks; i++){
+                byte b = buffer.get(i);
+                if (b == '\n' && state != QUOTED && i + 1 >= next){
+                    boundaries[count++] = i + 1;
+                    next = i + 1 + target;
+                }
+                state = nextCsvState(state, b);
+            }
+        }
+        if (boundaries[count - 1] < end){
+            boundaries[count++] = end;
+        }
+        int[] result = new int[count];
+        System.arraycopy(boundaries, 0, result, 0, count);
+        return result;
+    }
+
+    // Offset just after the last complete record in the window
+    private static int lastRecordEnd(MappedByteBuffer buffer, int length, ImportFormat format){
+        if (format == ImportFormat.JSONL){
+            for (int i = length - 1; i >= 0; i--){
+                if (buffer.get(i) == '\n'){
+                    return i + 1;
+                }
+            }
+            return 0;
+        }
+        // Whether a newline is inside quotes depends on everything before it, so CSV is scanned from the start
+        int state = FIELD_START;
+        int end = 0;
+        for (int i = 0; i < length; i++){
+            byte b = buffer.get(i);
+            if (b == '\n' && state != QUOTED){
+                end = i + 1;
+            }
+            state = nextCsvState(state, b);
+        }
+        return end;
+    }
+
+    // A newline ends the record in every state but QUOTED; malformed quoting is left for the parser to reject
+    private static int nextCsvState(int state, byte b){
+        if (state == QUOTED){
+            return b == '"' ? QUOTE_IN_QUOTED : QUOTED;
+        }
+        if (b == '"'){
+            // An opening quote, or the second quote of an escaped "" pair
+            return state == UNQUOTED ? UNQUOTED : QUOTED;
+        }
+        return b == ',' || b == '\n' ? FIELD_START : UNQUOTED;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, byte value, int from, int to){
+        for (int i = from; i < to; i++){
+            if (buffer.get(i) == value){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Parses the records of one chunk and stores them in batches
+    private final class ParseChunk extends RecursiveAction {
+        private final MappedByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private final ImportFormat format;
+        private final LongAdder imported;
+        private final LongAdder rejected;
+
+        ParseChunk(MappedByteBuffer buffer, int start, int end, ImportFormat format, LongAdder imported, LongAdder rejected){
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+            this.format = format;
+            this.imported = imported;
+            this.rejected = rejected;
+        }
+
+        @Override
+        protected void compute(){
+            RecordParser parser = new RecordParser(format);
+            List<Comment> batch = new ArrayList<>(batchSize);
+            int lineStart = start;
+            int state = FIELD_START;
+            for (int i = start; i < end; i++){
+                byte b = buffer.get(i);
+                boolean quoted = state == QUOTED;
+                if (format == ImportFormat.CSV){
+                    state = nextCsvState(state, b);
+                }
+                if (b != '\n' || quoted){
+                    continue;
+                }
+                accept(parser, batch, lineStart, i);
+                lineStart = i + 1;
+            }
+            if (lineStart < end){
+                accept(parser, batch, lineStart, end);
+            }
+            flush(batch);
+        }
+
+        private void accept(RecordParser parser, List<Comment> batch, int lineStart, int lineEnd){
+            if (lineEnd == lineStart || lineEnd == lineStart + 1 && buffer.get(lineStart) == '\r'){
+                return;
+            }
+            Comment comment = parser.parse(buffer, lineStart, lineEnd);
+            if (comment == null){
+                rejected.increment();
+                return;
+            }
+            batch.add(comment);
+            if (batch.size() == batchSize){
+                flush(batch);
+            }
+        }
+
+        private void flush(List<Comment> batch){
+            if (batch.isEmpty()){
+                return;
+            }
+            commentRepository.storeComments(batch);
+            imported.add(batch.size());
+            batch.clear();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ImportProgress progress);
+    }
+
+    public record ImportProgress(long bytesRead, long totalBytes, long imported, long rejected, long elapsedNanos) {
+
+        public double recordsPerSecond(){
+            return elapsedNanos == 0 ? 0 : imported / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString(){
+            return String.format("%.1f%% (%d MB of %d MB), imported=%d, rejected=%d, %.0f records/sec",
+                    totalBytes == 0 ? 100 : 100.0 * bytesRead / totalBytes, bytesRead >> 20, totalBytes >> 20,
+                    imported, rejected, recordsPerSecond());
+        }
+    }
+
+    public record ImportResult(long imported, long rejected, long elapsedNanos) {
+
+        public double recordsPerSecond(){
+            return elapsedNanos == 0 ? 0 : imported / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString(){
+            return String.format("imported=%d, rejected=%d in %d ms (%.0f records/sec)",
+                    imported, rejected, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), recordsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.importer;
+import java.nio.file.Path;
+
+public enum ImportFormat {
+    // author,text per line with RFC 4180 quoting; a first line of "author,text" is skipped
+    CSV,
+    // One {"author": ..., "text": ...} object per line; other fields are ignored
+    JSONL;
+
+    public static ImportFormat of(Path file){
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")){
+            return CSV;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")){
+            return JSONL;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + file + " from its extension");
+    }
+}
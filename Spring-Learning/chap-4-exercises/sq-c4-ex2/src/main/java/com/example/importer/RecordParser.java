@@ -0,0 +1,233 @@
+package com.example.importer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import com.example.model.*;
+
+/**
+ * Parses one record from the bytes of a line, straight from the mapped file. Returns null for a record
+ * that cannot be parsed or lacks an author or text. Not thread-safe: each parsing task uses its own parser.
+ */
+final class RecordParser {
+    private final ImportFormat format;
+    private byte[] scratch = new byte[256];
+    private int length;
+
+    RecordParser(ImportFormat format){
+        this.format = format;
+    }
+
+    Comment parse(ByteBuffer buffer, int start, int end){
+        if (end > start && buffer.get(end - 1) == '\r'){
+            end--;
+        }
+        try {
+            return format == ImportFormat.CSV ? parseCsv(buffer, start, end) : parseJson(buffer, start, end);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e){
+            return null;
+        }
+    }
+
+    static boolean isCsvHeader(ByteBuffer buffer, int start, int end){
+        byte[] header = "author,text".getBytes(StandardCharsets.US_ASCII);
+        if (end > start && buffer.get(end - 1) == '\r'){
+            end--;
+        }
+        if (end - start != header.length){
+            return false;
+        }
+        for (int i = 0; i < header.length; i++){
+            if (Character.toLowerCase(buffer.get(start + i)) != header[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Comment parseCsv(ByteBuffer buffer, int start, int end){
+        int[] position = {start};
+        String author = csvField(buffer, position, end);
+        if (position[0] >= end || buffer.get(position[0]) != ','){
+            return null;
+        }
+        position[0]++;
+        String text = csvField(buffer, position, end);
+        if (position[0] != end){
+            return null;
+        }
+        return comment(author, text);
+    }
+
+    // Reads a plain or quoted field and leaves the position on the separator after it
+    private String csvField(ByteBuffer buffer, int[] position, int end){
+        length = 0;
+        int i = position[0];
+        if (i < end && buffer.get(i) == '"'){
+            i++;
+            while (true){
+                if (i >= end){
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                byte b = buffer.get(i++);
+                if (b == '"'){
+                    if (i < end && buffer.get(i) == '"'){
+                        append((byte) '"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                } else {
+                    append(b);
+                }
+            }
+        } else {
+            while (i < end && buffer.get(i) != ','){
+                append(buffer.get(i++));
+            }
+        }
+        position[0] = i;
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private Comment parseJson(ByteBuffer buffer, int start, int end){
+        int[] position = {skipSpace(buffer, start, end)};
+        expect(buffer, position, end, '{');
+        String author = null;
+        String text = null;
+        position[0] = skipSpace(buffer, position[0], end);
+        if (byteAt(buffer, position[0], end) == '}'){
+            return null;
+        }
+        while (true){
+            position[0] = skipSpace(buffer, position[0], end);
+            String name = jsonString(buffer, position, end);
+            position[0] = skipSpace(buffer, position[0], end);
+            expect(buffer, position, end, ':');
+            position[0] = skipSpace(buffer, position[0], end);
+            if (byteAt(buffer, position[0], end) == '"'){
+                String value = jsonString(buffer, position, end);
+                if (name.equals("author")){
+                    author = value;
+                } else if (name.equals("text")){
+                    text = value;
+                }
+            } else {
+                // Numbers, booleans and null of fields we do not import
+                while (position[0] < end && buffer.get(position[0]) != ',' && buffer.get(position[0]) != '}'){
+                    position[0]++;
+                }
+            }
+            position[0] = skipSpace(buffer, position[0], end);
+            byte next = byteAt(buffer, position[0]++, end);
+            if (next == '}'){
+                break;
+            }
+            if (next != ','){
+                return null;
+            }
+        }
+        if (skipSpace(buffer, position[0], end) != end){
+            return null;
+        }
+        return comment(author, text);
+    }
+
+    private String jsonString(ByteBuffer buffer, int[] position, int end){
+        expect(buffer, position, end, '"');
+        length = 0;
+        int i = position[0];
+        while (true){
+            if (i >= end){
+                throw new IllegalArgumentException("Unterminated string");
+            }
+            byte b = buffer.get(i++);
+            if (b == '"'){
+                break;
+            }
+            if (b != '\\'){
+                append(b);
+                continue;
+            }
+            byte escaped = byteAt(buffer, i++, end);
+            switch (escaped){
+                case '"', '\\', '/' -> append(escaped);
+                case 'b' -> append((byte) '\b');
+                case 'f' -> append((byte) '\f');
+                case 'n' -> append((byte) '\n');
+                case 'r' -> append((byte) '\r');
+                case 't' -> append((byte) '\t');
+                case 'u' -> {
+                    char c = (char) Integer.parseInt(ascii(buffer, i, 4, end), 16);
+                    i += 4;
+                    // A surrogate pair arrives as two escapes; encode the pair together
+                    if (Character.isHighSurrogate(c) && i + 6 <= end && buffer.get(i) == '\\' && buffer.get(i + 1) == 'u'){
+                        char low = (char) Integer.parseInt(ascii(buffer, i + 2, 4, end), 16);
+                        i += 6;
+                        appendUtf8(new String(new char[] {c, low}));
+                    } else {
+                        appendUtf8(String.valueOf(c));
+                    }
+                }
+                default -> throw new IllegalArgumentException("Bad escape");
+            }
+        }
+        position[0] = i;
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static String ascii(ByteBuffer buffer, int start, int count, int end){
+        if (count > end - start){
+            throw new IllegalArgumentException("Truncated escape");
+        }
+        char[] chars = new char[count];
+        for (int i = 0; i < count; i++){
+            chars[i] = (char) buffer.get(start + i);
+        }
+        return new String(chars);
+    }
+
+    private static void expect(ByteBuffer buffer, int[] position, int end, char c){
+        if (byteAt(buffer, position[0]++, end) != c){
+            throw new IllegalArgumentException("Expected " + c);
+        }
+    }
+
+    // Reads inside the record only; the buffer continues with the next record, so its limit is no guard
+    private static byte byteAt(ByteBuffer buffer, int i, int end){
+        if (i >= end){
+            throw new IllegalArgumentException("Truncated record");
+        }
+        return buffer.get(i);
+    }
+
+    private static int skipSpace(ByteBuffer buffer, int i, int end){
+        while (i < end && (buffer.get(i) == ' ' || buffer.get(i) == '\t')){
+            i++;
+        }
+        return i;
+    }
+
+    private void appendUtf8(String value){
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)){
+            append(b);
+        }
+    }
+
+    private void append(byte b){
+        if (length == scratch.length){
+            byte[] larger = new byte[length * 2];
+            System.arraycopy(scratch, 0, larger, 0, length);
+            scratch = larger;
+        }
+        scratch[length++] = b;
+    }
+
+    private static Comment comment(String author, String text){
+        if (author == null || author.isEmpty() || text == null){
+            return null;
+        }
+        var comment = new Comment();
+        comment.setAuthor(author);
+        comment.setText(text);
+        return comment;
+    }
+}
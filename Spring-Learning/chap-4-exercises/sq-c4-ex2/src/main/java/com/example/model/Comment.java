@@ -22,6 +22,6 @@ public class Comment {
 
     @Override
     public String toString(){
-        return "Author: " + author + "\nComment: " + text; 
+        return "Author: " + getAuthor() + "\nComment: " + getText();
     }
 }
\ No newline at end of file
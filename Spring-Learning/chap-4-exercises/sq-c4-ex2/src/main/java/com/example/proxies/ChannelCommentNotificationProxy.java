@@ -0,0 +1,61 @@
+package com.example.proxies;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import com.example.codec.*;
+import com.example.model.*;
+
+/**
+ * Sends notifications as {@link CommentCodec} records to a byte channel, such as a socket or a spool file read
+ * by another process, which can decode them with {@link CommentCodec#forEach}. Each record carries the time the
+ * notification was sent. A digest is written as consecutive records in a single write.
+ */
+public class ChannelCommentNotificationProxy implements CommentNotificationProxy {
+
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+
+    public ChannelCommentNotificationProxy(WritableByteChannel channel){
+        this.channel = channel;
+    }
+
+    @Override
+    public synchronized void sendComment(Comment comment){
+        buffer.clear();
+        put(comment, System.currentTimeMillis());
+        write();
+    }
+
+    @Override
+    public synchronized void sendDigest(String author, List<Comment> comments){
+        long now = System.currentTimeMillis();
+        buffer.clear();
+        for (Comment comment : comments){
+            put(comment, now);
+        }
+        write();
+    }
+
+    // Grows the reused buffer when a record does not fit, keeping what was already encoded
+    private void put(Comment comment, long timestamp){
+        int size = CommentCodec.encodedSize(comment, timestamp);
+        if (buffer.remaining() < size){
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + size));
+            buffer = larger.put(buffer.flip());
+        }
+        CommentCodec.encode(comment, timestamp, buffer);
+    }
+
+    private void write(){
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Failed to send comment notification", e);
+        }
+    }
+}
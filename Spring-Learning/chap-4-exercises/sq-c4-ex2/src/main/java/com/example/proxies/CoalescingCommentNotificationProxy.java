@@ -0,0 +1,174 @@
+package com.example.proxies;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import com.example.model.*;
+
+/**
+ * Decorator that groups comments by author and sends one digest per group through the wrapped proxy.
+ * A group is sent when it reaches {@code maxComments} comments or when {@code windowMillis} has passed
+ * since its first comment arrived, whichever comes first. Only digests the wrapped proxy accepted count as
+ * sent; failed ones are logged and counted separately. After {@link #close()} no comments are accepted.
+ */
+public class CoalescingCommentNotificationProxy implements CommentNotificationProxy, AutoCloseable {
+
+    private final CommentNotificationProxy delegate;
+    private final long windowMillis;
+    private final int maxComments;
+    private final ConcurrentHashMap<String, PendingDigest> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder digestsSent = new LongAdder();
+    private final LongAdder digestsFailed = new LongAdder();
+    private final LongAdder totalDelayNanos = new LongAdder();
+    private final AtomicLong maxDelayNanos = new AtomicLong();
+
+    public CoalescingCommentNotificationProxy(CommentNotificationProxy delegate, long windowMillis, int maxComments){
+        if (windowMillis < 1 || maxComments < 1){
+            throw new IllegalArgumentException("Window and comment limit must be positive");
+        }
+        this.delegate = delegate;
+        this.windowMillis = windowMillis;
+        this.maxComments = maxComments;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-notification-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void sendComment(Comment comment){
+        if (closed){
+            throw new IllegalStateException("Notification proxy is closed");
+        }
+        String author = comment.getAuthor();
+        if (author == null){
+            throw new IllegalArgumentException("Comment has no author to group by");
+        }
+        received.increment();
+        long now = System.nanoTime();
+        PendingDigest[] full = new PendingDigest[1];
+        pending.compute(author, (key, digest) -> {
+            boolean timed = true;
+            if (digest == null){
+                digest = new PendingDigest(key, now);
+                timed = schedule(digest);
+            }
+            digest.add(comment, now);
+            // Without a timer (closed meanwhile) the digest would never be flushed, so it goes out now
+            if (!timed || digest.comments.size() >= maxComments){
+                full[0] = digest;
+                return null;
+            }
+            return digest;
+        });
+        if (full[0] != null){
+            send(full[0]);
+        } else if (closed){
+            // close() may have flushed before this comment joined an existing digest
+            PendingDigest digest = pending.get(author);
+            if (digest != null){
+                flushIfPending(digest);
+            }
+        }
+    }
+
+    public CoalescingStats getStats(){
+        long digests = digestsSent.sum();
+        long deliveredCount = delivered.sum();
+        return new CoalescingStats(
+                received.sum(),
+                digests,
+                digestsFailed.sum(),
+                deliveredCount - digests,
+                deliveredCount == 0 ? 0 : totalDelayNanos.sum() / deliveredCount,
+                maxDelayNanos.get());
+    }
+
+    // Sends every pending digest immediately and stops the window timer
+    @Override
+    public void close(){
+        closed = true;
+        scheduler.shutdownNow();
+        for (PendingDigest digest : pending.values()){
+            flushIfPending(digest);
+        }
+    }
+
+    private boolean schedule(PendingDigest digest){
+        try {
+            scheduler.schedule(() -> flushIfPending(digest), windowMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e){
+            return false;
+        }
+    }
+
+    // Only the caller that removes the digest from the map sends it, so a digest is never sent twice
+    private void flushIfPending(PendingDigest digest){
+        if (pending.remove(digest.author, digest)){
+            send(digest);
+        }
+    }
+
+    private void send(PendingDigest digest){
+        long now = System.nanoTime();
+        int count = digest.comments.size();
+        try {
+            if (count == 1){
+                delegate.sendComment(digest.comments.get(0));
+            } else {
+                delegate.sendDigest(digest.author, digest.comments);
+            }
+        } catch (RuntimeException e){
+            digestsFailed.increment();
+            System.err.println("Failed to send notification digest for " + digest.author + ": " + e.getMessage());
+            return;
+        }
+        digestsSent.increment();
+        delivered.add(count);
+        totalDelayNanos.add(count * now - digest.arrivalSum);
+        maxDelayNanos.accumulateAndGet(now - digest.firstArrival, Math::max);
+    }
+
+    private static final class PendingDigest {
+        final String author;
+        final long firstArrival;
+        final List<Comment> comments = new ArrayList<>();
+        long arrivalSum;
+
+        PendingDigest(String author, long firstArrival){
+            this.author = author;
+            this.firstArrival = firstArrival;
+        }
+
+        void add(Comment comment, long arrival){
+            comments.add(comment);
+            arrivalSum += arrival;
+        }
+    }
+
+    public record CoalescingStats(long received, long digestsSent, long digestsFailed, long sendsSaved,
+                                  long averageDelayNanos, long maxDelayNanos) {
+
+        @Override
+        public String toString(){
+            return "received=" + received
+                    + ", digestsSent=" + digestsSent
+                    + ", digestsFailed=" + digestsFailed
+                    + ", sendsSaved=" + sendsSaved
+                    + ", avgDelay=" + TimeUnit.NANOSECONDS.toMillis(averageDelayNanos) + "ms"
+                    + ", maxDelay=" + TimeUnit.NANOSECONDS.toMillis(maxDelayNanos) + "ms";
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package com.example.proxies;
+import java.util.List;
 import com.example.model.*;
 
 public interface CommentNotificationProxy{
     void sendComment(Comment comment);
-}
\ No newline at end of file
+
+    // Sends one notification covering several comments by the same author; by default falls back to one send per comment
+    default void sendDigest(String author, List<Comment> comments){
+        for (Comment comment : comments){
+            sendComment(comment);
+        }
+    }
+}
@@ -1,4 +1,5 @@
 package com.example.proxies;
+import java.util.List;
 import com.example.model.*;
 import org.springframework.stereotype.*;
  
@@ -9,4 +10,9 @@ public class EmailCommentNotificationProxy implements CommentNotificationProxy{
     public void sendComment(Comment comment){
         System.out.println("Sending notification for comment " + comment.getText());
     }
-}
\ No newline at end of file
+
+    @Override
+    public void sendDigest(String author, List<Comment> comments){
+        System.out.println("Sending notification for " + comments.size() + " comments by " + author);
+    }
+}
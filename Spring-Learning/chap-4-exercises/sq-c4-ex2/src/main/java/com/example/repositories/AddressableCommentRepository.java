@@ -0,0 +1,34 @@
+package com.example.repositories;
+import java.util.List;
+import com.example.model.*;
+
+// Repository that hands out an id for every stored comment and can read a comment back by that id
+public interface AddressableCommentRepository extends CommentRepository {
+
+    // Stores the comment and returns its id; ids increase in the order comments are appended
+    long append(Comment comment);
+
+    Comment findComment(long id);
+
+    // Visits every stored comment with its id, in append order
+    void scan(IdentifiedCommentConsumer consumer);
+
+    // Stores the comments and returns their ids in the same order; implementations that can write in bulk should override this
+    default long[] appendAll(List<Comment> comments){
+        long[] ids = new long[comments.size()];
+        for (int i = 0; i < ids.length; i++){
+            ids[i] = append(comments.get(i));
+        }
+        return ids;
+    }
+
+    @Override
+    default void storeComment(Comment comment){
+        append(comment);
+    }
+
+    @FunctionalInterface
+    interface IdentifiedCommentConsumer {
+        void accept(long id, Comment comment);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.repositories;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+/**
+ * Maps each author to the ids of their comments, kept in a growable {@code long[]} per author.
+ *
+ * The map key doubles as the canonical copy of the author string, so every comment of an author
+ * can share one instance through {@link #intern(String)}. Appends to one author's list are serialized
+ * on that list; readers take a snapshot of the ids written so far without locking.
+ */
+public class AuthorIndex {
+
+    private final ConcurrentHashMap<String, Postings> authors = new ConcurrentHashMap<>();
+
+    // Adds the id to the end of the author's list
+    public void add(String author, long id){
+        Postings postings = postingsFor(author);
+        synchronized (postings){
+            postings.add(id);
+        }
+    }
+
+    // Adds ids of one author from a batch; they are kept in id order even if a later batch was indexed first
+    public void addAll(String author, long[] ids){
+        Postings postings = postingsFor(author);
+        synchronized (postings){
+            for (long id : ids){
+                postings.add(id);
+            }
+        }
+    }
+
+    // Returns the shared instance of the author string, registering the author if needed
+    public String intern(String author){
+        return postingsFor(author).author;
+    }
+
+    // Ids of the author's comments in insertion order, as of the time of the call
+    public long[] ids(String author){
+        Postings postings = authors.get(author);
+        return postings == null ? new long[0] : postings.snapshot();
+    }
+
+    public LongStream stream(String author){
+        Postings postings = authors.get(author);
+        if (postings == null){
+            return LongStream.empty();
+        }
+        int count = postings.size;
+        return Arrays.stream(postings.ids, 0, count);
+    }
+
+    public int count(String author){
+        Postings postings = authors.get(author);
+        return postings == null ? 0 : postings.size;
+    }
+
+    // Read-only view of the indexed authors; removing from it would drop their postings
+    public Set<String> authors(){
+        return Collections.unmodifiableSet(authors.keySet());
+    }
+
+    Postings postingsFor(String author){
+        Postings postings = authors.get(author);
+        return postings != null ? postings : authors.computeIfAbsent(author, Postings::new);
+    }
+
+    static final class Postings {
+        final String author;
+        // Written before size, so a reader that sees a size also sees an array holding that many ids
+        private volatile long[] ids = new long[4];
+        private volatile int size;
+
+        Postings(String author){
+            this.author = author;
+        }
+
+        // Callers hold the lock on this list. Ids normally arrive in increasing order; an older one, from a batch
+        // indexed after a later one, is inserted into a copy so readers never see the list shift under them
+        void add(long id){
+            int count = size;
+            long[] current = ids;
+            if (count > 0 && id < current[count - 1]){
+                int at = count - 1;
+                while (at > 0 && current[at - 1] > id){
+                    at--;
+                }
+                long[] copy = new long[Math.max(current.length, count + 1)];
+                System.arraycopy(current, 0, copy, 0, at);
+                copy[at] = id;
+                System.arraycopy(current, at, copy, at + 1, count - at);
+                ids = copy;
+                size = count + 1;
+                return;
+            }
+            if (count == current.length){
+                current = Arrays.copyOf(current, count + (count >> 1) + 1);
+                ids = current;
+            }
+            current[count] = id;
+            size = count + 1;
+        }
+
+        long[] snapshot(){
+            int count = size;
+            return Arrays.copyOf(ids, count);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.repositories;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import com.example.model.*;
+
+/**
+ * Decorator that maintains an {@link AuthorIndex} over an {@link AddressableCommentRepository}, so an author's
+ * comments are found in time proportional to how many they wrote instead of by scanning every comment.
+ *
+ * Storing a comment and indexing it happen under the author's lock, so each author's ids are listed in the
+ * order their comments were stored. A batch is appended through the wrapped repository in one call, keeping bulk
+ * writes bulk, and its ids are then indexed author by author, each slotted into id order. Comments of different
+ * authors are stored concurrently, as far as the wrapped repository allows. Stored comments are not modified; only the index keeps one shared copy of each
+ * author string. Comments already in the wrapped repository, such as a reopened log or an existing table, are
+ * indexed through {@link AddressableCommentRepository#scan} when the decorator is created.
+ */
+public class AuthorIndexedCommentRepository implements CommentRepository {
+
+    private final AddressableCommentRepository delegate;
+    private final AuthorIndex index = new AuthorIndex();
+
+    public AuthorIndexedCommentRepository(AddressableCommentRepository delegate){
+        this.delegate = delegate;
+        delegate.scan((id, comment) -> index.add(comment.getAuthor(), id));
+    }
+
+    @Override
+    public void storeComment(Comment comment){
+        AuthorIndex.Postings postings = index.postingsFor(comment.getAuthor());
+        synchronized (postings){
+            postings.add(delegate.append(comment));
+        }
+    }
+
+    @Override
+    public void storeComments(List<Comment> comments){
+        long[] ids = delegate.appendAll(comments);
+        Map<String, LongStream.Builder> byAuthor = new HashMap<>();
+        for (int i = 0; i < ids.length; i++){
+            byAuthor.computeIfAbsent(comments.get(i).getAuthor(), author -> LongStream.builder()).add(ids[i]);
+        }
+        byAuthor.forEach((author, authorIds) -> index.addAll(author, authorIds.build().toArray()));
+    }
+
+    // Streams the author's comments in insertion order; comments stored after the call are not included
+    public Stream<Comment> findByAuthor(String author){
+        return index.stream(author).mapToObj(delegate::findComment);
+    }
+
+    public int countByAuthor(String author){
+        return index.count(author);
+    }
+
+    public AuthorIndex getIndex(){
+        return index;
+    }
+}
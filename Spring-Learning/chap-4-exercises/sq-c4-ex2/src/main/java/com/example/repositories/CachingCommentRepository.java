@@ -0,0 +1,424 @@
+package com.example.repositories;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import com.example.model.*;
+
+/**
+ * Read-through cache in front of an {@link AddressableCommentRepository}.
+ *
+ * Eviction follows W-TinyLFU: a new entry first enters a small LRU window (1% of the capacity). Entries leaving
+ * the window go to the probation part of a segmented LRU, and an entry that is read again while on probation
+ * is promoted to the protected part (80% of the main capacity). When the cache is full, the entry leaving the
+ * window only stays if the {@link FrequencySketch} says it was accessed more often than the probation entry it
+ * would evict. One-off reads and scans therefore cannot push out the popular comments, which is what plain LRU does.
+ *
+ * Capacity can be limited by entry count, by weight (total text length) or both; a limit of 0 disables it.
+ * Entries older than {@code expireAfterWrite} are dropped on their next read or by {@link #cleanUp()}.
+ *
+ * As in Caffeine, a hit takes no lock: the entry is found in a concurrent map and the access is recorded in a small
+ * per-thread-stripe buffer. The buffers are drained under the lock, which updates the sketch and the LRU order, when
+ * one fills up or the next miss, invalidation or clean-up holds the lock anyway. A full buffer drops the access, which
+ * only costs a little frequency and recency information. Comments are loaded outside the lock, so two threads missing
+ * on the same id may both read the backing store; a load that overlaps an {@link #invalidate(long)} is not cached.
+ */
+public class CachingCommentRepository implements AddressableCommentRepository {
+
+    private static final int READ_BUFFER_STRIPES = readBufferStripes(Runtime.getRuntime().availableProcessors());
+
+    private final AddressableCommentRepository delegate;
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final long expireAfterWriteNanos;
+    private final Limits window;
+    private final Limits protectedLimits;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentHashMap<Long, Node> entries = new ConcurrentHashMap<>();
+    private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+    private final FrequencySketch sketch;
+    private final Queue windowQueue = new Queue();
+    private final Queue probationQueue = new Queue();
+    private final Queue protectedQueue = new Queue();
+    private long size;
+    private long weight;
+    // Bumped by every invalidation, so a load that started before one can tell its comment may be stale
+    private volatile long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long evictions;
+    private long expirations;
+
+    public CachingCommentRepository(AddressableCommentRepository delegate, long maximumSize, long maximumWeight, Duration expireAfterWrite){
+        if (maximumSize < 0 || maximumWeight < 0 || maximumSize == 0 && maximumWeight == 0){
+            throw new IllegalArgumentException("A positive size or weight limit is required");
+        }
+        this.delegate = delegate;
+        this.maximumSize = maximumSize == 0 ? Long.MAX_VALUE : maximumSize;
+        this.maximumWeight = maximumWeight == 0 ? Long.MAX_VALUE : maximumWeight;
+        this.expireAfterWriteNanos = expireAfterWrite == null || expireAfterWrite.isZero() ? Long.MAX_VALUE : expireAfterWrite.toNanos();
+        this.window = new Limits(share(this.maximumSize, 0.01), share(this.maximumWeight, 0.01));
+        this.protectedLimits = new Limits(share(this.maximumSize, 0.8), share(this.maximumWeight, 0.8));
+        this.sketch = new FrequencySketch(maximumSize > 0 ? maximumSize : Math.max(1024, maximumWeight / 64));
+        for (int i = 0; i < readBuffers.length; i++){
+            readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    // New comments are written through and only cached once they are read
+    @Override
+    public long append(Comment comment){
+        return delegate.append(comment);
+    }
+
+    @Override
+    public void storeComment(Comment comment){
+        delegate.storeComment(comment);
+    }
+
+    @Override
+    public void storeComments(List<Comment> comments){
+        delegate.storeComments(comments);
+    }
+
+    @Override
+    public long[] appendAll(List<Comment> comments){
+        return delegate.appendAll(comments);
+    }
+
+    // Reads straight from the wrapped repository, so a scan does not flush the cache
+    @Override
+    public void scan(IdentifiedCommentConsumer consumer){
+        delegate.scan(consumer);
+    }
+
+    @Override
+    public Comment findComment(long id){
+        Node node = entries.get(id);
+        if (node != null){
+            if (now() - node.writeTime < expireAfterWriteNanos){
+                hits.increment();
+                recordRead(node);
+                return node.comment;
+            }
+            lock.lock();
+            try {
+                if (entries.get(id) == node){
+                    remove(node);
+                    expirations++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        misses.increment();
+
+        long invalidationsBefore = invalidations;
+        Comment comment = delegate.findComment(id);
+        int commentWeight = weigh(comment);
+        lock.lock();
+        try {
+            drainReadBuffers();
+            sketch.increment(id);
+            if (commentWeight > maximumWeight || invalidations != invalidationsBefore){
+                // Too heavy to cache, or possibly changed while it was being loaded
+                return comment;
+            }
+            Node existing = entries.get(id);
+            if (existing != null){
+                return existing.comment;
+            }
+            Node added = new Node(id, comment, commentWeight, now());
+            entries.put(id, added);
+            windowQueue.addLast(added);
+            size++;
+            weight += commentWeight;
+            evict();
+            return comment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes the cached copy of the comment, for example after it was changed in the backing store
+    public void invalidate(long id){
+        lock.lock();
+        try {
+            invalidations++;
+            drainReadBuffers();
+            Node node = entries.get(id);
+            if (node != null){
+                remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drops every expired entry now instead of on its next read
+    public void cleanUp(){
+        long now = now();
+        lock.lock();
+        try {
+            drainReadBuffers();
+            for (Iterator<Node> iterator = entries.values().iterator(); iterator.hasNext();){
+                Node node = iterator.next();
+                if (now - node.writeTime >= expireAfterWriteNanos){
+                    iterator.remove();
+                    unlink(node);
+                    expirations++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats getStats(){
+        lock.lock();
+        try {
+            drainReadBuffers();
+            return new CacheStats(hits.sum(), misses.sum(), evictions, expirations, size, weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Queues the access for the next drain and drains now if this thread's buffer is full and the lock is free
+    private void recordRead(Node node){
+        int hash = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        ReadBuffer buffer = readBuffers[(hash ^ (hash >>> 16)) & (READ_BUFFER_STRIPES - 1)];
+        if (!buffer.offer(node) && lock.tryLock()){
+            try {
+                drainReadBuffers();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Replays the buffered hits into the sketch and the LRU order; callers hold the lock
+    private void drainReadBuffers(){
+        for (ReadBuffer buffer : readBuffers){
+            buffer.drain(this::onHit);
+        }
+    }
+
+    private void onHit(Node node){
+        sketch.increment(node.id);
+        if (node.queue == null){
+            // Evicted or invalidated after the read was buffered
+            return;
+        }
+        if (node.queue == windowQueue){
+            windowQueue.moveToLast(node);
+        } else if (node.queue == probationQueue){
+            probationQueue.remove(node);
+            protectedQueue.addLast(node);
+            // Keep the protected part within its share by demoting its least recently used entries
+            while (protectedQueue.overflows(protectedLimits) && protectedQueue.first() != node){
+                Node demoted = protectedQueue.first();
+                protectedQueue.remove(demoted);
+                probationQueue.addLast(demoted);
+            }
+        } else {
+            protectedQueue.moveToLast(node);
+        }
+    }
+
+    private void evict(){
+        // Entries leaving the window become admission candidates at the end of the probation queue
+        Node candidate = null;
+        while (windowQueue.overflows(window) && windowQueue.first() != null){
+            Node node = windowQueue.first();
+            windowQueue.remove(node);
+            probationQueue.addLast(node);
+            if (candidate == null){
+                candidate = node;
+            }
+        }
+
+        while (size > maximumSize || weight > maximumWeight){
+            Node victim = probationQueue.first();
+            if (victim == null){
+                victim = protectedQueue.first() != null ? protectedQueue.first() : windowQueue.first();
+                candidate = null;
+            } else if (candidate == victim){
+                candidate = candidate.next;
+            } else if (candidate != null && sketch.frequency(candidate.id) <= sketch.frequency(victim.id)){
+                // The candidate is only admitted if it is more popular than the entry it would replace
+                victim = candidate;
+                candidate = candidate.next;
+            }
+            if (victim == null){
+                break;
+            }
+            remove(victim);
+            evictions++;
+        }
+    }
+
+    private void remove(Node node){
+        entries.remove(node.id, node);
+        unlink(node);
+    }
+
+    private void unlink(Node node){
+        node.queue.remove(node);
+        node.queue = null;
+        size--;
+        weight -= node.weight;
+    }
+
+    // Reading the clock is not free, so it is skipped when entries never expire
+    private long now(){
+        return expireAfterWriteNanos == Long.MAX_VALUE ? 0 : System.nanoTime();
+    }
+
+    private static int weigh(Comment comment){
+        return Math.max(1, comment.getText() == null ? 0 : comment.getText().length());
+    }
+
+    // Smallest power of two that is at least the number of processors
+    private static int readBufferStripes(int processors){
+        return processors <= 1 ? 1 : Integer.highestOneBit(processors - 1) << 1;
+    }
+
+    private static long share(long limit, double fraction){
+        return limit == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, (long) (limit * fraction));
+    }
+
+    private record Limits(long size, long weight) {
+    }
+
+    private static final class Node {
+        final long id;
+        final Comment comment;
+        final int weight;
+        final long writeTime;
+        Queue queue;
+        Node previous;
+        Node next;
+
+        Node(long id, Comment comment, int weight, long writeTime){
+            this.id = id;
+            this.comment = comment;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+
+    // Bounded ring of recent hits: any thread may add, only the lock holder drains; adds are dropped while it is full
+    private static final class ReadBuffer {
+        private static final int CAPACITY = 16;
+        private static final int MASK = CAPACITY - 1;
+
+        private final AtomicReferenceArray<Node> slots = new AtomicReferenceArray<>(CAPACITY);
+        private final AtomicLong writeCount = new AtomicLong();
+        private volatile long readCount;
+
+        // Returns false when the buffer is full and the read was dropped
+        boolean offer(Node node){
+            long writes = writeCount.get();
+            if (writes - readCount >= CAPACITY){
+                return false;
+            }
+            if (writeCount.compareAndSet(writes, writes + 1)){
+                slots.lazySet((int) (writes & MASK), node);
+            }
+            return true;
+        }
+
+        void drain(Consumer<Node> consumer){
+            long reads = readCount;
+            long writes = writeCount.get();
+            for (; reads < writes; reads++){
+                int slot = (int) (reads & MASK);
+                Node node = slots.get(slot);
+                if (node == null){
+                    // The writer claimed the slot but has not filled it yet; pick it up on the next drain
+                    break;
+                }
+                slots.lazySet(slot, null);
+                consumer.accept(node);
+            }
+            readCount = reads;
+        }
+    }
+
+    // Intrusive doubly linked LRU list, least recently used first
+    private static final class Queue {
+        private Node head;
+        private Node tail;
+        private long size;
+        private long weight;
+
+        Node first(){
+            return head;
+        }
+
+        boolean overflows(Limits limits){
+            return size > limits.size() || weight > limits.weight();
+        }
+
+        void addLast(Node node){
+            node.queue = this;
+            node.previous = tail;
+            node.next = null;
+            if (tail == null){
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+            weight += node.weight;
+        }
+
+        void remove(Node node){
+            if (node.previous == null){
+                head = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null){
+                tail = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            size--;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node node){
+            if (node != tail){
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    public record CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount,
+                             long size, long weight) {
+
+        public double hitRate(){
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1 : (double) hitCount / requests;
+        }
+
+        @Override
+        public String toString(){
+            return String.format("hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d, size=%d, weight=%d",
+                    hitCount, missCount, hitRate() * 100, evictionCount, expirationCount, size, weight);
+        }
+    }
+}
@@ -1,6 +1,14 @@
 package com.example.repositories;
+import java.util.List;
 import com.example.model.*;
 
 public interface CommentRepository{
     void storeComment(Comment comment);
-}
\ No newline at end of file
+
+    // Stores a group of comments in one call; implementations that can write in bulk should override this
+    default void storeComments(List<Comment> comments){
+        for (Comment comment : comments){
+            storeComment(comment);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.repositories;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import com.example.model.*;
+
+/**
+ * Keeps comments in a few large arrays instead of one {@link Comment} and two Strings per comment.
+ *
+ * Authors are stored once in a dictionary and referenced by an int id. Text is encoded as UTF-8 into shared
+ * 1MB pages, and each comment is described by one long packing its page, offset and length. A stored comment
+ * therefore costs 12 bytes plus its UTF-8 text, against over 100 bytes of headers, fields and arrays for the POJO.
+ *
+ * Reads return flyweight {@link Comment} views that decode author and text from the arrays when asked for them.
+ * Appends are serialized; reads take no lock and see every comment whose id was returned before the read started.
+ */
+public class CompactCommentStore implements SequentialCommentRepository {
+
+    private static final int PAGE_BITS = 20;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final long FIELD_MASK = PAGE_SIZE - 1;
+
+    // Author ids and packed text references of each comment, indexed by comment id
+    private volatile int[] authorIds;
+    private volatile long[] textRefs;
+    private volatile int size;
+
+    private volatile String[] authors = new String[64];
+    private final Map<String, Integer> authorIndex = new HashMap<>();
+
+    private volatile byte[][] pages = new byte[16][];
+    private int pageCount;
+    private int pageOffset;
+
+    public CompactCommentStore(){
+        this(1024);
+    }
+
+    public CompactCommentStore(int initialCapacity){
+        this.authorIds = new int[Math.max(1, initialCapacity)];
+        this.textRefs = new long[Math.max(1, initialCapacity)];
+    }
+
+    @Override
+    public synchronized long append(Comment comment){
+        byte[] text = comment.getText().getBytes(StandardCharsets.UTF_8);
+        if (text.length >= PAGE_SIZE){
+            throw new IllegalArgumentException("Comment text of " + text.length + " bytes is too long");
+        }
+        int id = size;
+        if (id == textRefs.length){
+            int capacity = id + (id >> 1) + 1;
+            authorIds = Arrays.copyOf(authorIds, capacity);
+            textRefs = Arrays.copyOf(textRefs, capacity);
+        }
+        authorIds[id] = authorId(comment.getAuthor());
+        textRefs[id] = writeText(text);
+        size = id + 1;
+        return id;
+    }
+
+    @Override
+    public Comment findComment(long id){
+        checkId(id);
+        return new CommentView((int) id);
+    }
+
+    // Visits every comment through one reused view, which must not be kept after the callback returns
+    public void forEach(Consumer<? super Comment> consumer){
+        int count = size;
+        CommentView view = new CommentView(0);
+        for (int id = 0; id < count; id++){
+            view.id = id;
+            consumer.accept(view);
+        }
+    }
+
+    public String getAuthor(long id){
+        checkId(id);
+        return authors[authorIds[(int) id]];
+    }
+
+    public String getText(long id){
+        checkId(id);
+        long ref = textRefs[(int) id];
+        return new String(pages[page(ref)], offset(ref), length(ref), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size(){
+        return size;
+    }
+
+    public synchronized int authorCount(){
+        return authorIndex.size();
+    }
+
+    // Bytes held by the arrays of this store, counting allocated capacity rather than only what is in use
+    public synchronized long footprintBytes(){
+        long bytes = 16L + 4L * authorIds.length + 16L + 8L * textRefs.length;
+        bytes += 16L + 4L * authors.length + (long) pageCount * (16 + PAGE_SIZE) + 16L + 4L * pages.length;
+        for (Map.Entry<String, Integer> entry : authorIndex.entrySet()){
+            // HashMap node, boxed id, String and its byte array
+            bytes += 32 + 16 + 24 + 16 + entry.getKey().length();
+        }
+        return bytes;
+    }
+
+    private int authorId(String author){
+        Integer id = authorIndex.get(author);
+        if (id != null){
+            return id;
+        }
+        int next = authorIndex.size();
+        if (next == authors.length){
+            authors = Arrays.copyOf(authors, next * 2);
+        }
+        authors[next] = author;
+        authorIndex.put(author, next);
+        return next;
+    }
+
+    // Copies the text into the current page, starting a new page when it does not fit, and returns its reference
+    private long writeText(byte[] text){
+        if (pageCount == 0 || pageOffset + text.length > PAGE_SIZE){
+            if (pageCount == pages.length){
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            pages[pageCount++] = new byte[PAGE_SIZE];
+            pageOffset = 0;
+        }
+        int page = pageCount - 1;
+        System.arraycopy(text, 0, pages[page], pageOffset, text.length);
+        long ref = (long) page << (2 * PAGE_BITS) | (long) pageOffset << PAGE_BITS | text.length;
+        pageOffset += text.length;
+        return ref;
+    }
+
+    private void checkId(long id){
+        if (id < 0 || id >= size){
+            throw new IllegalArgumentException("No comment stored with id " + id);
+        }
+    }
+
+    private static int page(long ref){
+        return (int) (ref >>> (2 * PAGE_BITS));
+    }
+
+    private static int offset(long ref){
+        return (int) (ref >>> PAGE_BITS & FIELD_MASK);
+    }
+
+    private static int length(long ref){
+        return (int) (ref & FIELD_MASK);
+    }
+
+    // Comment backed by this store; author and text are read from the arrays on every call
+    private final class CommentView extends Comment {
+        private int id;
+
+        CommentView(int id){
+            this.id = id;
+        }
+
+        @Override
+        public String getAuthor(){
+            return CompactCommentStore.this.getAuthor(id);
+        }
+
+        @Override
+        public String getText(){
+            return CompactCommentStore.this.getText(id);
+        }
+
+        @Override
+        public void setAuthor(String author){
+            throw new UnsupportedOperationException("Stored comments are read-only");
+        }
+
+        @Override
+        public void setText(String text){
+            throw new UnsupportedOperationException("Stored comments are read-only");
+        }
+    }
+}
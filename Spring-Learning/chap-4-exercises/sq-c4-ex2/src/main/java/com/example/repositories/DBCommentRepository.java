@@ -1,12 +1,133 @@
 package com.example.repositories;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.*;
 import com.example.model.*;
 
 @Component
-public class DBCommentRepository implements CommentRepository{
+public class DBCommentRepository implements AddressableCommentRepository{
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final String INSERT_COMMENT = "INSERT INTO comment (author, text) VALUES (?, ?)";
+    private static final String SELECT_COMMENT = "SELECT author, text FROM comment WHERE id = ?";
+    private static final String SELECT_ALL = "SELECT id, author, text FROM comment ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public DBCommentRepository(JdbcTemplate jdbcTemplate){
+        this(jdbcTemplate, DEFAULT_BATCH_SIZE);
+    }
+
+    public DBCommentRepository(JdbcTemplate jdbcTemplate, int batchSize){
+        if (batchSize < 1){
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
 
     @Override
     public void storeComment(Comment comment){
-        System.out.println("Storing comment " + comment.getText());
+        jdbcTemplate.update(INSERT_COMMENT, comment.getAuthor(), comment.getText());
+    }
+
+    // Inserts the comment and returns the id generated for its row
+    @Override
+    public long append(Comment comment){
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_COMMENT, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, comment.getAuthor());
+            ps.setString(2, comment.getText());
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    @Override
+    public Comment findComment(long id){
+        List<Comment> comments = jdbcTemplate.query(SELECT_COMMENT, (rs, rowNum) -> {
+            var comment = new Comment();
+            comment.setAuthor(rs.getString("author"));
+            comment.setText(rs.getString("text"));
+            return comment;
+        }, id);
+        if (comments.isEmpty()){
+            throw new IllegalArgumentException("No comment stored with id " + id);
+        }
+        return comments.get(0);
+    }
+
+    // Streams the rows through the result set instead of loading them into a list first
+    @Override
+    public void scan(IdentifiedCommentConsumer consumer){
+        jdbcTemplate.query(SELECT_ALL, rs -> {
+            var comment = new Comment();
+            comment.setAuthor(rs.getString("author"));
+            comment.setText(rs.getString("text"));
+            consumer.accept(rs.getLong("id"), comment);
+        });
+    }
+
+    // Inserts the comments in the same JDBC batches as storeComments and returns the generated ids in order
+    @Override
+    public long[] appendAll(List<Comment> comments){
+        long[] ids = new long[comments.size()];
+        for (int from = 0; from < comments.size(); from += batchSize){
+            List<Comment> chunk = comments.subList(from, Math.min(from + batchSize, comments.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_COMMENT, new String[] {"id"}),
+                    setter(chunk), keyHolder);
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < chunk.size(); i++){
+                ids[from + i] = ((Number) keys.get(i).values().iterator().next()).longValue();
+            }
+        }
+        return ids;
+    }
+
+    // Sends the comments as JDBC batches of at most batchSize rows, each batch reusing one prepared statement
+    @Override
+    public void storeComments(List<Comment> comments){
+        for (int from = 0; from < comments.size(); from += batchSize){
+            List<Comment> chunk = comments.subList(from, Math.min(from + batchSize, comments.size()));
+            jdbcTemplate.batchUpdate(INSERT_COMMENT, setter(chunk));
+        }
+    }
+
+    private static BatchPreparedStatementSetter setter(List<Comment> chunk){
+        return new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Comment comment = chunk.get(i);
+                ps.setString(1, comment.getAuthor());
+                ps.setString(2, comment.getText());
+            }
+
+            @Override
+            public int getBatchSize(){
+                return chunk.size();
+            }
+        };
+    }
+
+    public long countComments(){
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comment", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public void deleteAll(){
+        jdbcTemplate.update("TRUNCATE TABLE comment");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.example.repositories;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import com.example.codec.*;
+import com.example.model.*;
+
+/**
+ * Keeps comments as {@link CommentCodec} records, stamped with their append time, in 1MB heap pages.
+ * A comment id packs the page number and the record offset, and {@link #findComment(long)} returns an
+ * {@link EncodedComment} view over the page, so reads copy nothing until author or text is asked for.
+ */
+public class EncodedCommentRepository implements AddressableCommentRepository {
+
+    private static final int PAGE_BITS = 20;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private volatile ByteBuffer[] pages = new ByteBuffer[16];
+    private volatile int pageCount;
+    private ByteBuffer current;
+
+    @Override
+    public synchronized long append(Comment comment){
+        long timestamp = System.currentTimeMillis();
+        int size = CommentCodec.encodedSize(comment, timestamp);
+        if (size > PAGE_SIZE){
+            throw new IllegalArgumentException("Comment of " + size + " bytes does not fit in a page");
+        }
+        if (current == null || current.remaining() < size){
+            if (pageCount == pages.length){
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            current = ByteBuffer.allocate(PAGE_SIZE);
+            pages[pageCount] = current;
+            pageCount++;
+        }
+        int offset = current.position();
+        CommentCodec.encode(comment, timestamp, current);
+        return (long) (pageCount - 1) << PAGE_BITS | offset;
+    }
+
+    @Override
+    public EncodedComment findComment(long id){
+        int page = (int) (id >>> PAGE_BITS);
+        if (id < 0 || page >= pageCount){
+            throw new IllegalArgumentException("No comment stored with id " + id);
+        }
+        // The view only reads at absolute offsets, so it can share the page buffer with the writer
+        return CommentCodec.decode(pages[page], (int) (id & PAGE_SIZE - 1));
+    }
+
+    // Visits every comment stored before the call, in append order
+    public synchronized void forEach(Consumer<? super EncodedComment> consumer){
+        for (int page = 0; page < pageCount; page++){
+            ByteBuffer records = pages[page].duplicate();
+            CommentCodec.forEach(records.flip(), consumer);
+        }
+    }
+
+    @Override
+    public synchronized void scan(IdentifiedCommentConsumer consumer){
+        for (int page = 0; page < pageCount; page++){
+            ByteBuffer records = pages[page];
+            int end = records.position();
+            for (int offset = 0; offset < end; ){
+                EncodedComment comment = CommentCodec.decode(records, offset);
+                consumer.accept((long) page << PAGE_BITS | offset, comment);
+                offset += comment.encodedLength();
+            }
+        }
+    }
+
+    public synchronized long sizeInBytes(){
+        long bytes = 0;
+        for (int page = 0; page < pageCount; page++){
+            bytes += pages[page].position();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.repositories;
+
+/**
+ * Count-min sketch estimating how often each key was accessed recently, with 4-bit counters packed
+ * sixteen to a long. After a sample of {@code 10 * capacity} accesses every counter is halved, so
+ * popularity ages out and the sketch follows shifts in traffic.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int accesses;
+
+    FrequencySketch(long capacity){
+        int size = (int) Math.min(1 << 24, Math.max(16, Long.highestOneBit(Math.max(1, capacity) - 1) << 1));
+        this.table = new long[size];
+        this.tableMask = size - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * size);
+    }
+
+    int frequency(long key){
+        long hash = spread(key);
+        int frequency = 15;
+        for (int row = 0; row < 4; row++){
+            frequency = Math.min(frequency, (int) (table[index(hash, row)] >>> shift(hash, row)) & 0xF);
+        }
+        return frequency;
+    }
+
+    void increment(long key){
+        long hash = spread(key);
+        boolean added = false;
+        for (int row = 0; row < 4; row++){
+            int index = index(hash, row);
+            int shift = shift(hash, row);
+            if (((table[index] >>> shift) & 0xF) < 15){
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++accesses >= sampleSize){
+            reset();
+        }
+    }
+
+    private void reset(){
+        for (int i = 0; i < table.length; i++){
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        accesses /= 2;
+    }
+
+    private int index(long hash, int row){
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (h ^ h >>> 32) & tableMask;
+    }
+
+    // Each row reads a different one of the sixteen counters in its long
+    private static int shift(long hash, int row){
+        return (int) ((hash >>> (row << 4)) & 0xF) << 2;
+    }
+
+    private static long spread(long key){
+        long h = key * 0x9e3779b97f4a7c15L;
+        return h ^ h >>> 29;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.repositories;
+import java.util.Arrays;
+import com.example.model.*;
+
+/**
+ * Keeps comments in a growable array; a comment's id is its index.
+ * Appends are serialized, reads take no lock: the size is published after the slot is written,
+ * and a grown array always holds every comment of the previous one.
+ */
+public class InMemoryCommentRepository implements SequentialCommentRepository {
+
+    private volatile Comment[] comments;
+    private volatile int size;
+
+    public InMemoryCommentRepository(){
+        this(1024);
+    }
+
+    public InMemoryCommentRepository(int initialCapacity){
+        this.comments = new Comment[Math.max(1, initialCapacity)];
+    }
+
+    @Override
+    public synchronized long append(Comment comment){
+        int id = size;
+        Comment[] current = comments;
+        if (id == current.length){
+            current = Arrays.copyOf(current, id * 2);
+            comments = current;
+        }
+        current[id] = comment;
+        size = id + 1;
+        return id;
+    }
+
+    @Override
+    public Comment findComment(long id){
+        int count = size;
+        if (id < 0 || id >= count){
+            throw new IllegalArgumentException("No comment stored with id " + id);
+        }
+        return comments[(int) id];
+    }
+
+    @Override
+    public int size(){
+        return size;
+    }
+}
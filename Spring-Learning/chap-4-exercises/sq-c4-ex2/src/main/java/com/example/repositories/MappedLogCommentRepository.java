@@ -0,0 +1,445 @@
+package com.example.repositories;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import com.example.model.*;
+
+/**
+ * Durable comment store that appends records to segmented, memory-mapped log files.
+ *
+ * Each segment is a file of {@code segmentSize} bytes named after the log position of its first byte.
+ * A record is laid out as {@code [int length][int crc32][long timestamp][int authorLength][author][int textLength][text]},
+ * where length and checksum cover everything after the checksum. The length is written last so a record
+ * only becomes visible once it is complete. On startup the last segment is checked record by record and cut off at
+ * its first missing or corrupt record, which recovers from a crash in the middle of an append. Earlier segments are
+ * only walked by their headers, and a damaged one fails the startup instead of being truncated.
+ *
+ * Positions returned by {@link #append(Comment)} are global log offsets and serve as comment ids for {@link #read(long)}.
+ */
+public class MappedLogCommentRepository implements AddressableCommentRepository, AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final CRC32 writeCrc = new CRC32();
+    private Segment active;
+    private boolean closed;
+
+    public MappedLogCommentRepository(Path directory){
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedLogCommentRepository(Path directory, int segmentSize){
+        if (segmentSize < 1024){
+            throw new IllegalArgumentException("Segment size must be at least 1024 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            open();
+        } catch (IOException e){
+            throw new UncheckedIOException("Cannot open comment log in " + directory, e);
+        }
+    }
+
+    @Override
+    public void storeComment(Comment comment){
+        append(comment);
+    }
+
+    @Override
+    public void storeComments(List<Comment> comments){
+        appendAll(comments);
+    }
+
+    // Appends the whole batch under one lock, so the records of a batch are contiguous in the log
+    @Override
+    public synchronized long[] appendAll(List<Comment> comments){
+        long[] positions = new long[comments.size()];
+        for (int i = 0; i < positions.length; i++){
+            positions[i] = append(comments.get(i));
+        }
+        return positions;
+    }
+
+    // Appends the comment and returns its log position
+    @Override
+    public synchronized long append(Comment comment){
+        if (closed){
+            throw new IllegalStateException("Comment log is closed");
+        }
+        byte[] author = comment.getAuthor().getBytes(StandardCharsets.UTF_8);
+        byte[] text = comment.getText().getBytes(StandardCharsets.UTF_8);
+        int length = Long.BYTES + Integer.BYTES + author.length + Integer.BYTES + text.length;
+        int recordSize = HEADER_SIZE + length;
+        if (recordSize > segmentSize){
+            throw new IllegalArgumentException("Comment of " + recordSize + " bytes does not fit in a log segment");
+        }
+        if (active.writeOffset + recordSize > segmentSize){
+            roll();
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        int offset = active.writeOffset;
+        int payloadStart = offset + HEADER_SIZE;
+        buffer.putLong(payloadStart, System.currentTimeMillis());
+        buffer.putInt(payloadStart + Long.BYTES, author.length);
+        buffer.put(payloadStart + Long.BYTES + Integer.BYTES, author);
+        int textStart = payloadStart + Long.BYTES + Integer.BYTES + author.length;
+        buffer.putInt(textStart, text.length);
+        buffer.put(textStart + Integer.BYTES, text);
+
+        buffer.putInt(offset + Integer.BYTES, checksum(writeCrc, buffer, payloadStart, length));
+        buffer.putInt(offset, length);
+        active.writeOffset = offset + recordSize;
+        return active.basePosition + offset;
+    }
+
+    // Reads only below the segment's write offset, which is published after the record is complete, and checks the
+    // record's checksum, so a position inside a record or past the written data is rejected instead of decoded
+    public Comment read(long position){
+        Segment segment = segmentFor(position);
+        int offset = (int) (position - segment.basePosition);
+        int limit = segment.writeOffset;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int payloadStart = offset + HEADER_SIZE;
+        int length = offset > limit - HEADER_SIZE ? 0 : buffer.getInt(offset);
+        if (length <= 0 || length > limit - payloadStart
+                || buffer.getInt(offset + Integer.BYTES) != checksum(new CRC32(), buffer, payloadStart, length)){
+            throw new IllegalArgumentException("No comment stored at position " + position);
+        }
+        return decode(buffer, payloadStart);
+    }
+
+    @Override
+    public Comment findComment(long id){
+        return read(id);
+    }
+
+    // Visits every stored comment in append order
+    public void forEach(LogEntryConsumer consumer){
+        for (Segment segment : segments.values()){
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int offset = 0;
+            int limit = segment.writeOffset;
+            while (offset < limit){
+                int length = buffer.getInt(offset);
+                int payloadStart = offset + HEADER_SIZE;
+                consumer.accept(segment.basePosition + offset, buffer.getLong(payloadStart), decode(buffer, payloadStart));
+                offset = payloadStart + length;
+            }
+        }
+    }
+
+    @Override
+    public void scan(IdentifiedCommentConsumer consumer){
+        forEach((position, timestamp, comment) -> consumer.accept(position, comment));
+    }
+
+    /**
+     * Copies the records starting at or after {@code from} and before {@code to} to the target with
+     * {@link FileChannel#transferTo}, so the bytes go from the segment files to the target without passing through
+     * the heap. Stops after the first record that brings the copied size to {@code maxBytes} or more, and returns the
+     * position after the last record copied, from which a later call can resume. {@code from} must be a record start,
+     * such as 0 or a position returned by {@link #append(Comment)} or by this method.
+     * The copied bytes are in the log's record format and can be read back with {@link #forEachRecord}.
+     */
+    public long transferTo(long from, long to, long maxBytes, WritableByteChannel target) throws IOException {
+        long end = Math.min(to, endPosition());
+        long position = from;
+        long copied = 0;
+        while (position < end && copied < maxBytes){
+            Segment segment = segmentFor(position);
+            int offset = (int) (position - segment.basePosition);
+            int limit = segment.writeOffset;
+            if (offset >= limit){
+                // Rest of the segment is unused, continue with the next one
+                Long next = segments.higherKey(segment.basePosition);
+                if (next == null){
+                    break;
+                }
+                position = next;
+                continue;
+            }
+            // Only the record headers are read, to find where the span of whole records ends
+            int spanEnd = offset;
+            while (spanEnd < limit && segment.basePosition + spanEnd < end && copied + spanEnd - offset < maxBytes){
+                spanEnd += HEADER_SIZE + segment.buffer.getInt(spanEnd);
+            }
+            try (FileChannel channel = FileChannel.open(segmentFile(segment.basePosition), StandardOpenOption.READ)){
+                for (long sent = offset; sent < spanEnd; ){
+                    sent += channel.transferTo(sent, spanEnd - sent, target);
+                }
+            }
+            copied += spanEnd - offset;
+            position = segment.basePosition + spanEnd;
+        }
+        return position;
+    }
+
+    /**
+     * Like {@link #transferTo}, but copies only the records whose comment matches the filter. Every record is decoded
+     * to test it, so the matching ones are gathered in a buffer and written from there instead of with
+     * {@link FileChannel#transferTo}. {@code maxBytes} counts the records examined, not only the ones copied.
+     */
+    public long copyTo(long from, long to, long maxBytes, Predicate<? super Comment> filter, WritableByteChannel target) throws IOException {
+        long end = Math.min(to, endPosition());
+        long position = from;
+        long examined = 0;
+        ByteBuffer pending = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+        while (position < end && examined < maxBytes){
+            Segment segment = segmentFor(position);
+            int offset = (int) (position - segment.basePosition);
+            if (offset >= segment.writeOffset){
+                Long next = segments.higherKey(segment.basePosition);
+                if (next == null){
+                    break;
+                }
+                position = next;
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int recordSize = HEADER_SIZE + buffer.getInt(offset);
+            if (filter.test(decode(buffer, offset + HEADER_SIZE))){
+                ByteBuffer record = buffer.limit(offset + recordSize).position(offset);
+                if (pending.remaining() < recordSize){
+                    drain(pending.flip(), target);
+                    pending.clear();
+                }
+                if (recordSize > pending.capacity()){
+                    drain(record, target);
+                } else {
+                    pending.put(record);
+                }
+            }
+            examined += recordSize;
+            position += recordSize;
+        }
+        drain(pending.flip(), target);
+        return position;
+    }
+
+    // Bytes of the records between two record positions, which is what transferTo copies for that range
+    public long recordBytes(long from, long to){
+        long bytes = to - from;
+        for (Segment segment : segments.subMap(from, false, to, true).values()){
+            // Skip the unused tail of the segment before this one
+            Segment previous = segments.lowerEntry(segment.basePosition).getValue();
+            bytes -= segmentSize - previous.writeOffset;
+        }
+        return bytes;
+    }
+
+    // Decodes records copied out of a log by transferTo, from the buffer's position to its limit; checksums are verified
+    public static void forEachRecord(ByteBuffer buffer, LogEntryConsumer consumer){
+        CRC32 crc = new CRC32();
+        int offset = buffer.position();
+        while (offset + HEADER_SIZE <= buffer.limit()){
+            int length = buffer.getInt(offset);
+            int payloadStart = offset + HEADER_SIZE;
+            if (length <= 0 || length > buffer.limit() - payloadStart
+                    || buffer.getInt(offset + Integer.BYTES) != checksum(crc, buffer, payloadStart, length)){
+                throw new IllegalArgumentException("Corrupt or truncated comment record at offset " + offset);
+            }
+            consumer.accept(offset, buffer.getLong(payloadStart), decode(buffer, payloadStart));
+            offset = payloadStart + length;
+        }
+        if (offset != buffer.limit()){
+            throw new IllegalArgumentException("Truncated comment record at offset " + offset);
+        }
+    }
+
+    // Position at which the next record will be written
+    public synchronized long endPosition(){
+        return active.basePosition + active.writeOffset;
+    }
+
+    public Path getDirectory(){
+        return directory;
+    }
+
+    // Forces the written records of the active segment to disk
+    public synchronized void flush(){
+        active.buffer.force();
+    }
+
+    @Override
+    public synchronized void close(){
+        if (closed){
+            return;
+        }
+        closed = true;
+        for (Segment segment : segments.values()){
+            segment.buffer.force();
+        }
+    }
+
+    private void open() throws IOException {
+        try (Stream<Path> files = Files.list(directory)){
+            for (Path file : (Iterable<Path>) files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX))::iterator){
+                String name = file.getFileName().toString();
+                long basePosition = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(basePosition, map(file, basePosition));
+            }
+        }
+        if (segments.isEmpty()){
+            active = createSegment(0);
+            return;
+        }
+        // Only the last segment can hold a torn append; the sealed ones were complete when the log rolled over
+        active = segments.lastEntry().getValue();
+        for (Segment segment : segments.headMap(active.basePosition).values()){
+            segment.writeOffset = sealedEnd(segment);
+        }
+        active.writeOffset = recover(active);
+    }
+
+    // Walks the record headers of a sealed segment up to its first unused byte; a header that does not fit means the
+    // file was damaged, which is reported rather than cut off, since the segments after it are still in the log
+    private int sealedEnd(Segment segment){
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset <= segmentSize - HEADER_SIZE){
+            int length = buffer.getInt(offset);
+            if (length == 0){
+                break;
+            }
+            int payloadStart = offset + HEADER_SIZE;
+            if (length < 0 || length > segmentSize - payloadStart){
+                throw new IllegalStateException("Corrupt comment record at log position " + (segment.basePosition + offset)
+                        + " in sealed segment " + segmentFile(segment.basePosition));
+            }
+            offset = payloadStart + length;
+        }
+        return offset;
+    }
+
+    // Scans the last segment from the start and returns the offset just after its last valid record,
+    // zeroing anything after it so a torn or corrupt tail cannot be mistaken for data later
+    private int recover(Segment segment){
+        MappedByteBuffer buffer = segment.buffer;
+        CRC32 crc = new CRC32();
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segmentSize){
+            int length = buffer.getInt(offset);
+            int payloadStart = offset + HEADER_SIZE;
+            // Compared by subtraction so a torn header with a huge length cannot overflow
+            if (length <= 0 || length > segmentSize - payloadStart
+                    || buffer.getInt(offset + Integer.BYTES) != checksum(crc, buffer, payloadStart, length)){
+                break;
+            }
+            offset = payloadStart + length;
+        }
+        // Records are not aligned, so a full segment can end with fewer spare bytes than an int
+        boolean dirty = false;
+        for (int i = offset; i < segmentSize && !dirty; i++){
+            dirty = buffer.get(i) != 0;
+        }
+        if (dirty){
+            for (int i = offset; i < segmentSize; i++){
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        return offset;
+    }
+
+    private void roll(){
+        active.buffer.force();
+        active = createSegment(active.basePosition + segmentSize);
+    }
+
+    private Path segmentFile(long basePosition){
+        return directory.resolve(String.format("%020d%s", basePosition, SEGMENT_SUFFIX));
+    }
+
+    private Segment createSegment(long basePosition){
+        Path file = segmentFile(basePosition);
+        try {
+            Segment segment = map(file, basePosition);
+            segments.put(basePosition, segment);
+            return segment;
+        } catch (IOException e){
+            throw new UncheckedIOException("Cannot create log segment " + file, e);
+        }
+    }
+
+    private Segment map(Path file, long basePosition) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)){
+            return new Segment(basePosition, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+    }
+
+    private Segment segmentFor(long position){
+        Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+        if (entry == null || position - entry.getKey() >= segmentSize){
+            throw new IllegalArgumentException("No comment stored at position " + position);
+        }
+        return entry.getValue();
+    }
+
+    private static void drain(ByteBuffer bytes, WritableByteChannel target) throws IOException {
+        while (bytes.hasRemaining()){
+            target.write(bytes);
+        }
+    }
+
+    private static int checksum(CRC32 crc, ByteBuffer buffer, int start, int length){
+        crc.reset();
+        crc.update(buffer.duplicate().position(start).limit(start + length));
+        return (int) crc.getValue();
+    }
+
+    private static Comment decode(ByteBuffer buffer, int payloadStart){
+        int authorStart = payloadStart + Long.BYTES + Integer.BYTES;
+        int authorLength = buffer.getInt(payloadStart + Long.BYTES);
+        int textLength = buffer.getInt(authorStart + authorLength);
+        var comment = new Comment();
+        comment.setAuthor(string(buffer, authorStart, authorLength));
+        comment.setText(string(buffer, authorStart + authorLength + Integer.BYTES, textLength));
+        return comment;
+    }
+
+    private static String string(ByteBuffer buffer, int start, int length){
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    public interface LogEntryConsumer {
+        void accept(long position, long timestamp, Comment comment);
+    }
+
+    private static final class Segment {
+        final long basePosition;
+        final MappedByteBuffer buffer;
+        volatile int writeOffset;
+
+        Segment(long basePosition, MappedByteBuffer buffer){
+            this.basePosition = basePosition;
+            this.buffer = buffer;
+        }
+    }
+}
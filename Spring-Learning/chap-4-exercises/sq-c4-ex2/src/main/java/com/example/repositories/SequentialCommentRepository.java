@@ -0,0 +1,16 @@
+package com.example.repositories;
+
+// Addressable repository whose ids are 0, 1, 2, ... in append order, so every comment can be reached by counting
+public interface SequentialCommentRepository extends AddressableCommentRepository {
+
+    // Number of stored comments, which is also the id the next comment will get
+    int size();
+
+    // Ids are counted up to the size at the start of the scan
+    @Override
+    default void scan(IdentifiedCommentConsumer consumer){
+        for (int id = 0, size = size(); id < size; id++){
+            consumer.accept(id, findComment(id));
+        }
+    }
+}
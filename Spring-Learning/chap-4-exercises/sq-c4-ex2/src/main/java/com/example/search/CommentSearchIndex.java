@@ -0,0 +1,275 @@
+package com.example.search;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import com.example.model.*;
+
+/**
+ * In-memory inverted index over comment text with BM25 ranking.
+ *
+ * Comments get sequential document ids as they are added. Every term maps to a {@link PostingList} of
+ * {@code [docId, frequency, positions...]} entries in one int array, so postings carry no per-entry objects.
+ * Appends never rewrite existing postings, which lets a query take its snapshot under a short read lock
+ * and then score without holding it.
+ */
+public class CommentSearchIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private Comment[] comments = new Comment[1024];
+    private int[] lengths = new int[1024];
+    private int size;
+    private long totalLength;
+
+    // Indexes the comment text and returns the document id assigned to it
+    public int addComment(Comment comment){
+        List<String> tokens = Tokenizer.tokenize(comment.getText());
+        Map<String, TermPositions> terms = new HashMap<>();
+        for (int position = 0; position < tokens.size(); position++){
+            terms.computeIfAbsent(tokens.get(position), term -> new TermPositions()).add(position);
+        }
+
+        lock.writeLock().lock();
+        try {
+            int docId = size;
+            if (docId == comments.length){
+                comments = Arrays.copyOf(comments, docId * 2);
+                lengths = Arrays.copyOf(lengths, docId * 2);
+            }
+            comments[docId] = comment;
+            lengths[docId] = tokens.size();
+            for (Map.Entry<String, TermPositions> entry : terms.entrySet()){
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList())
+                        .add(docId, entry.getValue().positions, entry.getValue().count);
+            }
+            totalLength += tokens.size();
+            size = docId + 1;
+            return docId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size(){
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Top k comments containing any of the query terms, ranked by BM25
+    public List<SearchHit> search(String query, int k){
+        Snapshot snapshot = snapshot(new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query))));
+        List<TermCursor> cursors = new ArrayList<>();
+        for (TermCursor cursor : snapshot.cursors){
+            if (cursor != null){
+                cursors.add(cursor);
+            }
+        }
+        TopK top = new TopK(k);
+        if (cursors.isEmpty()){
+            return top.hits(snapshot);
+        }
+
+        // Document-at-a-time with MaxScore pruning: cursors are ordered by the highest score their term can add.
+        // Once the top k is full, the low-impact terms whose bounds together cannot beat the k-th score are
+        // no longer used to pick candidates; they are only advanced to score documents found by the others.
+        cursors.sort(Comparator.comparingDouble(TermCursor::maxScore));
+        int n = cursors.size();
+        float[] boundPrefix = new float[n];
+        for (int i = 0; i < n; i++){
+            boundPrefix[i] = (i == 0 ? 0 : boundPrefix[i - 1]) + cursors.get(i).maxScore();
+        }
+        int firstEssential = 0;
+        float threshold = 0;
+        while (firstEssential < n){
+            int doc = Integer.MAX_VALUE;
+            for (int i = firstEssential; i < n; i++){
+                PostingList.Cursor postings = cursors.get(i).postings;
+                if (!postings.exhausted()){
+                    doc = Math.min(doc, postings.docId());
+                }
+            }
+            if (doc == Integer.MAX_VALUE){
+                break;
+            }
+            float score = 0;
+            for (int i = firstEssential; i < n; i++){
+                TermCursor cursor = cursors.get(i);
+                if (!cursor.postings.exhausted() && cursor.postings.docId() == doc){
+                    score += snapshot.bm25(cursor.idf, cursor.postings.frequency(), doc);
+                    cursor.postings.next();
+                }
+            }
+            for (int i = firstEssential - 1; i >= 0 && score + boundPrefix[i] > threshold; i--){
+                TermCursor cursor = cursors.get(i);
+                cursor.postings.advance(doc);
+                if (!cursor.postings.exhausted() && cursor.postings.docId() == doc){
+                    score += snapshot.bm25(cursor.idf, cursor.postings.frequency(), doc);
+                }
+            }
+            if (top.offer(doc, score)){
+                threshold = top.threshold();
+                while (firstEssential < n && boundPrefix[firstEssential] <= threshold){
+                    firstEssential++;
+                }
+            }
+        }
+        return top.hits(snapshot);
+    }
+
+    // Top k comments containing the terms of the phrase next to each other and in order
+    public List<SearchHit> searchPhrase(String phrase, int k){
+        List<String> terms = Tokenizer.tokenize(phrase);
+        if (terms.size() < 2){
+            return search(phrase, k);
+        }
+        Snapshot snapshot = snapshot(terms);
+        TopK top = new TopK(k);
+        float idf = 0;
+        for (TermCursor cursor : snapshot.cursors){
+            if (cursor == null){
+                return top.hits(snapshot);
+            }
+            idf += cursor.idf;
+        }
+
+        TermCursor[] cursors = snapshot.cursors;
+        // Leapfrog intersection: advance every cursor to the largest current doc id until they all agree
+        int target = 0;
+        while (true){
+            boolean aligned = true;
+            for (TermCursor cursor : cursors){
+                cursor.postings.advance(target);
+                if (cursor.postings.exhausted()){
+                    return top.hits(snapshot);
+                }
+                if (cursor.postings.docId() != target){
+                    target = Math.max(target, cursor.postings.docId());
+                    aligned = false;
+                }
+            }
+            if (!aligned){
+                continue;
+            }
+            int matches = phraseMatches(cursors);
+            if (matches > 0){
+                top.offer(target, snapshot.bm25(idf, matches, target));
+            }
+            target++;
+        }
+    }
+
+    private static int phraseMatches(TermCursor[] cursors){
+        PostingList.Cursor first = cursors[0].postings;
+        int matches = 0;
+        for (int i = 0; i < first.frequency(); i++){
+            int start = first.position(i);
+            boolean match = true;
+            for (int t = 1; t < cursors.length && match; t++){
+                match = cursors[t].postings.containsPosition(start + t);
+            }
+            if (match){
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private Snapshot snapshot(List<String> terms){
+        lock.readLock().lock();
+        try {
+            TermCursor[] cursors = new TermCursor[terms.size()];
+            for (int i = 0; i < cursors.length; i++){
+                PostingList list = postings.get(terms.get(i));
+                if (list != null){
+                    double idf = Math.log(1 + (size - list.documentCount() + 0.5) / (list.documentCount() + 0.5));
+                    cursors[i] = new TermCursor(list.cursor(), (float) idf);
+                }
+            }
+            return new Snapshot(cursors, comments, lengths, size == 0 ? 1 : (float) totalLength / size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record TermCursor(PostingList.Cursor postings, float idf) {
+
+        // BM25 approaches idf * (k1 + 1) as the term frequency grows, so no document can score more for this term
+        float maxScore(){
+            return idf * (K1 + 1);
+        }
+    }
+
+    private record Snapshot(TermCursor[] cursors, Comment[] comments, int[] lengths, float averageLength) {
+
+        float bm25(float idf, int frequency, int doc){
+            float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+            return idf * frequency * (K1 + 1) / (frequency + norm);
+        }
+    }
+
+    // Keeps the k best scoring documents in a min-heap
+    private static final class TopK {
+        private final int k;
+        private final PriorityQueue<long[]> heap;
+
+        TopK(int k){
+            this.k = k;
+            this.heap = new PriorityQueue<>(Math.max(1, k), Comparator.comparingDouble(entry -> Float.intBitsToFloat((int) entry[1])));
+        }
+
+        // Returns true once the heap is full and the entry changed the k-th best score
+        boolean offer(int doc, float score){
+            if (k <= 0){
+                return false;
+            }
+            if (heap.size() < k){
+                heap.add(new long[] {doc, Float.floatToIntBits(score)});
+                return heap.size() == k;
+            }
+            if (score > threshold()){
+                heap.poll();
+                heap.add(new long[] {doc, Float.floatToIntBits(score)});
+                return true;
+            }
+            return false;
+        }
+
+        float threshold(){
+            return heap.size() < k ? 0 : Float.intBitsToFloat((int) heap.peek()[1]);
+        }
+
+        List<SearchHit> hits(Snapshot snapshot){
+            List<SearchHit> hits = new ArrayList<>(heap.size());
+            for (long[] entry : heap){
+                int doc = (int) entry[0];
+                hits.add(new SearchHit(doc, Float.intBitsToFloat((int) entry[1]), snapshot.comments[doc]));
+            }
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed().thenComparingInt(SearchHit::docId));
+            return hits;
+        }
+    }
+
+    private static final class TermPositions {
+        int[] positions = new int[2];
+        int count;
+
+        void add(int position){
+            if (count == positions.length){
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+    }
+}
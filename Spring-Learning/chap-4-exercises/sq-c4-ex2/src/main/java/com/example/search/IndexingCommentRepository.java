@@ -0,0 +1,35 @@
+package com.example.search;
+import java.util.List;
+import com.example.model.*;
+import com.example.repositories.*;
+
+// Decorator that keeps a search index up to date with every comment stored through the wrapped repository
+public class IndexingCommentRepository implements CommentRepository {
+
+    private final CommentRepository delegate;
+    private final CommentSearchIndex index;
+
+    public IndexingCommentRepository(CommentRepository delegate, CommentSearchIndex index){
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public void storeComment(Comment comment){
+        delegate.storeComment(comment);
+        index.addComment(comment);
+    }
+
+    // Comments are indexed only after the delegate stored the whole batch, so a failed batch is not searchable
+    @Override
+    public void storeComments(List<Comment> comments){
+        delegate.storeComments(comments);
+        for (Comment comment : comments){
+            index.addComment(comment);
+        }
+    }
+
+    public CommentSearchIndex getIndex(){
+        return index;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.search;
+import java.util.Arrays;
+
+/**
+ * Postings of one term packed into a single growable int array.
+ * Each document that contains the term appends {@code [docId, frequency, position...]}, in increasing docId order.
+ * Every {@value #SKIP_INTERVAL} documents a skip entry records the docId and its offset, so cursors can jump
+ * over long lists instead of stepping through every posting.
+ */
+final class PostingList {
+    private static final int SKIP_INTERVAL = 64;
+
+    private int[] data = new int[8];
+    private int size;
+    private int documentCount;
+    private int[] skipDocs = new int[4];
+    private int[] skipOffsets = new int[4];
+    private int skipCount;
+
+    void add(int docId, int[] positions, int frequency){
+        ensureCapacity(size + 2 + frequency);
+        if (documentCount % SKIP_INTERVAL == 0){
+            if (skipCount == skipDocs.length){
+                skipDocs = Arrays.copyOf(skipDocs, skipCount * 2);
+                skipOffsets = Arrays.copyOf(skipOffsets, skipCount * 2);
+            }
+            skipDocs[skipCount] = docId;
+            skipOffsets[skipCount++] = size;
+        }
+        data[size++] = docId;
+        data[size++] = frequency;
+        System.arraycopy(positions, 0, data, size, frequency);
+        size += frequency;
+        documentCount++;
+    }
+
+    int documentCount(){
+        return documentCount;
+    }
+
+    Cursor cursor(){
+        return new Cursor(data, size, skipDocs, skipOffsets, skipCount);
+    }
+
+    private void ensureCapacity(int capacity){
+        if (capacity > data.length){
+            data = Arrays.copyOf(data, Math.max(capacity, data.length + (data.length >> 1)));
+        }
+    }
+
+    // Iterates the postings of a snapshot of the list; appends made after the cursor was created are not seen
+    static final class Cursor {
+        private final int[] data;
+        private final int limit;
+        private final int[] skipDocs;
+        private final int[] skipOffsets;
+        private final int skipCount;
+        private int offset;
+
+        private Cursor(int[] data, int limit, int[] skipDocs, int[] skipOffsets, int skipCount){
+            this.data = data;
+            this.limit = limit;
+            this.skipDocs = skipDocs;
+            this.skipOffsets = skipOffsets;
+            this.skipCount = skipCount;
+        }
+
+        boolean exhausted(){
+            return offset >= limit;
+        }
+
+        int docId(){
+            return data[offset];
+        }
+
+        int frequency(){
+            return data[offset + 1];
+        }
+
+        int position(int index){
+            return data[offset + 2 + index];
+        }
+
+        boolean containsPosition(int position){
+            return Arrays.binarySearch(data, offset + 2, offset + 2 + frequency(), position) >= 0;
+        }
+
+        void next(){
+            offset += 2 + frequency();
+        }
+
+        // Moves to the first posting with docId >= target
+        void advance(int target){
+            if (exhausted() || docId() >= target){
+                return;
+            }
+            int skip = Arrays.binarySearch(skipDocs, 0, skipCount, target);
+            skip = skip >= 0 ? skip : -skip - 2;
+            if (skip >= 0 && skipOffsets[skip] > offset){
+                offset = skipOffsets[skip];
+            }
+            while (!exhausted() && docId() < target){
+                next();
+            }
+        }
+    }
+}
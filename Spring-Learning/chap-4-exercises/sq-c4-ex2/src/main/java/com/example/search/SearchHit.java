@@ -0,0 +1,5 @@
+package com.example.search;
+import com.example.model.*;
+
+public record SearchHit(int docId, float score, Comment comment) {
+}
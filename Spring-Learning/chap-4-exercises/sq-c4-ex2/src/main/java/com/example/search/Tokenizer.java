@@ -0,0 +1,29 @@
+package com.example.search;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Splits text into lower-case runs of letters and digits; everything else separates tokens
+public final class Tokenizer {
+
+    private Tokenizer(){
+    }
+
+    public static List<String> tokenize(String text){
+        List<String> tokens = new ArrayList<>();
+        if (text == null){
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++){
+            boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (tokenChar && start < 0){
+                start = i;
+            } else if (!tokenChar && start >= 0){
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
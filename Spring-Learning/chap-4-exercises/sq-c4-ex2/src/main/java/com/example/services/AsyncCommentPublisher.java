@@ -0,0 +1,206 @@
+package com.example.services;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.*;
+import com.example.repositories.*;
+import com.example.model.*;
+import com.example.proxies.*;
+
+/**
+ * Asynchronous alternative to {@link CommentService#publishComment(Comment)}.
+ * Callers only enqueue the comment into a bounded queue; a single drain worker
+ * collects comments into batches, stores each batch with
+ * {@link CommentRepository#storeComments(List)} and then sends the notifications.
+ * A batch is flushed when it reaches {@code maxBatchSize} or when
+ * {@code maxBatchDelayMillis} has passed since its first comment was taken.
+ * A batch that fails to store or notify is counted in the stats and handed to the
+ * failure handler, which logs it unless one is set.
+ */
+@Component
+public class AsyncCommentPublisher implements DisposableBean {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+    public static final long DEFAULT_MAX_BATCH_DELAY_MILLIS = 5;
+
+    private final CommentRepository commentRepository;
+    private final CommentNotificationProxy commentNotificationProxy;
+    private final BlockingQueue<PendingComment> queue;
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+    private volatile BiConsumer<List<Comment>, RuntimeException> failureHandler = AsyncCommentPublisher::logFailure;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder failedComments = new LongAdder();
+    private final AtomicLong maxBatch = new AtomicLong();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    @Autowired
+    public AsyncCommentPublisher(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy){
+        this(commentRepository, commentNotificationProxy,
+                DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_BATCH_DELAY_MILLIS);
+    }
+
+    public AsyncCommentPublisher(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy,
+                                 int queueCapacity, int maxBatchSize, long maxBatchDelayMillis){
+        if (queueCapacity < 1 || maxBatchSize < 1 || maxBatchDelayMillis < 0){
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive, batch delay must not be negative");
+        }
+        this.commentRepository = commentRepository;
+        this.commentNotificationProxy = commentNotificationProxy;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMillis);
+        this.worker = new Thread(this::drain, "comment-publisher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // Enqueues the comment and returns immediately; blocks only while the queue is full and the publisher is open
+    public void publishComment(Comment comment) throws InterruptedException {
+        PendingComment pending = new PendingComment(comment, System.nanoTime());
+        while (true){
+            if (!running){
+                throw new IllegalStateException("Publisher is closed");
+            }
+            if (queue.offer(pending, 100, TimeUnit.MILLISECONDS)){
+                break;
+            }
+        }
+        // destroy() may have run between the check and the offer; the worker could already be gone,
+        // so take the comment back unless the worker has picked it up
+        if (!running && queue.remove(pending)){
+            throw new IllegalStateException("Publisher is closed");
+        }
+    }
+
+    public void setFailureHandler(BiConsumer<List<Comment>, RuntimeException> failureHandler){
+        this.failureHandler = failureHandler;
+    }
+
+    public PublishStats getStats(){
+        long batchCount = batches.sum();
+        long publishedCount = published.sum();
+        return new PublishStats(
+                queue.size(),
+                publishedCount,
+                batchCount,
+                failedBatches.sum(),
+                failedComments.sum(),
+                batchCount == 0 ? 0 : (double) publishedCount / batchCount,
+                maxBatch.get(),
+                publishedCount == 0 ? 0 : totalLatencyNanos.sum() / publishedCount,
+                maxLatencyNanos.get());
+    }
+
+    // Stops accepting comments, flushes everything already queued and waits for the worker to finish
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join();
+    }
+
+    private void drain(){
+        List<PendingComment> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()){
+            try {
+                PendingComment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null){
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxBatchDelayNanos;
+                while (batch.size() < maxBatchSize){
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || queue.drainTo(batch, maxBatchSize - batch.size()) == 0
+                            && !pollInto(batch, remaining)){
+                        break;
+                    }
+                }
+            } catch (InterruptedException e){
+                // Interrupted by destroy(): take whatever is left and keep draining until the queue is empty
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()){
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean pollInto(List<PendingComment> batch, long timeoutNanos) throws InterruptedException {
+        PendingComment next = queue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+        if (next == null){
+            return false;
+        }
+        batch.add(next);
+        return true;
+    }
+
+    private void flush(List<PendingComment> batch){
+        List<Comment> comments = new ArrayList<>(batch.size());
+        for (PendingComment pending : batch){
+            comments.add(pending.comment());
+        }
+        try {
+            commentRepository.storeComments(comments);
+            for (Comment comment : comments){
+                commentNotificationProxy.sendComment(comment);
+            }
+        } catch (RuntimeException e){
+            failedBatches.increment();
+            failedComments.add(comments.size());
+            failureHandler.accept(comments, e);
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (PendingComment pending : batch){
+            long latency = now - pending.enqueuedAt();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+        published.add(batch.size());
+        batches.increment();
+        maxBatch.accumulateAndGet(batch.size(), Math::max);
+    }
+
+    private static void logFailure(List<Comment> comments, RuntimeException e){
+        System.err.println("Failed to publish batch of " + comments.size() + " comments: " + e.getMessage());
+    }
+
+    private record PendingComment(Comment comment, long enqueuedAt) {
+    }
+
+    public record PublishStats(int queueDepth, long published, long batches, long failedBatches,
+                               long failedComments, double averageBatchSize, long maxBatchSize,
+                               long averageLatencyNanos, long maxLatencyNanos) {
+
+        @Override
+        public String toString(){
+            return "queueDepth=" + queueDepth
+                    + ", published=" + published
+                    + ", batches=" + batches
+                    + ", failedBatches=" + failedBatches
+                    + ", failedComments=" + failedComments
+                    + ", avgBatchSize=" + String.format("%.1f", averageBatchSize)
+                    + ", maxBatchSize=" + maxBatchSize
+                    + ", avgLatency=" + TimeUnit.NANOSECONDS.toMicros(averageLatencyNanos) + "us"
+                    + ", maxLatency=" + TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos) + "us";
+        }
+    }
+}
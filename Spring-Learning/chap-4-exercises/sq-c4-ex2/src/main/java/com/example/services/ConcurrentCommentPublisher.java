@@ -0,0 +1,168 @@
+package com.example.services;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.*;
+import com.example.repositories.*;
+import com.example.model.*;
+import com.example.proxies.*;
+
+/**
+ * Publishes a comment by storing it and sending its notification at the same time instead of one after the other,
+ * so publish latency is close to the slower of the two. Each branch has its own timeout and its own outcome
+ * in the returned {@link PublishResult}; a failed or timed out branch does not cancel the other one.
+ *
+ * Each branch runs on its own thread: a virtual thread when the JVM supports them (Java 21+),
+ * otherwise a thread from a cached pool. A branch that times out keeps running in the background,
+ * since neither a JDBC write nor a notification can be safely interrupted halfway. Virtual threads are cheap enough
+ * to start one per branch without a limit. On the cached pool, to keep slow branches from piling up platform threads,
+ * at most {@code maxInFlightPerBranch} stores and as many notifications run at once, timed out ones included; beyond
+ * that a branch is not started and reports {@link BranchStatus#REJECTED}. The limits are separate so a hanging
+ * notifier cannot keep comments from being stored. A comment whose store is rejected is not notified either.
+ */
+@Component
+public class ConcurrentCommentPublisher implements DisposableBean {
+
+    public static final Duration DEFAULT_STORE_TIMEOUT = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_NOTIFY_TIMEOUT = Duration.ofSeconds(5);
+    public static final int DEFAULT_MAX_IN_FLIGHT_PER_BRANCH = 128;
+
+    private final CommentRepository commentRepository;
+    private final CommentNotificationProxy commentNotificationProxy;
+    private final Duration storeTimeout;
+    private final Duration notifyTimeout;
+    private final ExecutorService executor;
+    private final Semaphore storesInFlight;
+    private final Semaphore notificationsInFlight;
+    private final int inFlightLimit;
+    private final boolean virtualThreads;
+
+    @Autowired
+    public ConcurrentCommentPublisher(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy){
+        this(commentRepository, commentNotificationProxy, DEFAULT_STORE_TIMEOUT, DEFAULT_NOTIFY_TIMEOUT,
+                DEFAULT_MAX_IN_FLIGHT_PER_BRANCH);
+    }
+
+    // The in-flight limit only applies when the JVM has no virtual threads and branches run on the cached pool
+    public ConcurrentCommentPublisher(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy,
+                                      Duration storeTimeout, Duration notifyTimeout, int maxInFlightPerBranch){
+        if (maxInFlightPerBranch < 1){
+            throw new IllegalArgumentException("In-flight limit must be positive");
+        }
+        this.commentRepository = commentRepository;
+        this.commentNotificationProxy = commentNotificationProxy;
+        this.storeTimeout = storeTimeout;
+        this.notifyTimeout = notifyTimeout;
+        ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+        this.virtualThreads = virtual != null;
+        this.inFlightLimit = virtualThreads ? Integer.MAX_VALUE : maxInFlightPerBranch;
+        this.storesInFlight = new Semaphore(inFlightLimit);
+        this.notificationsInFlight = new Semaphore(inFlightLimit);
+        this.executor = virtual != null ? virtual : Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "comment-publish-branch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<PublishResult> publishComment(Comment comment){
+        long start = System.nanoTime();
+        CompletableFuture<BranchOutcome> store = branch(() -> commentRepository.storeComment(comment), storeTimeout, storesInFlight);
+        // A rejected store is already complete here; notifying about a comment that was never stored would mislead
+        CompletableFuture<BranchOutcome> notify = store.isDone() && store.join().status() == BranchStatus.REJECTED
+                ? store
+                : branch(() -> commentNotificationProxy.sendComment(comment), notifyTimeout, notificationsInFlight);
+        return store.thenCombine(notify, (stored, notified) -> new PublishResult(stored, notified, System.nanoTime() - start));
+    }
+
+    public boolean usesVirtualThreads(){
+        return virtualThreads;
+    }
+
+    @Override
+    public void destroy(){
+        executor.shutdown();
+    }
+
+    // Number of branches currently running, including timed out ones that have not finished yet
+    public int inFlightBranches(){
+        return inFlightLimit - storesInFlight.availablePermits() + inFlightLimit - notificationsInFlight.availablePermits();
+    }
+
+    private CompletableFuture<BranchOutcome> branch(Runnable task, Duration timeout, Semaphore inFlight){
+        long start = System.nanoTime();
+        if (!inFlight.tryAcquire()){
+            return CompletableFuture.completedFuture(new BranchOutcome(BranchStatus.REJECTED, 0, null));
+        }
+        CompletableFuture<Void> run;
+        try {
+            // The permit is held until the task really ends, not until its timeout
+            run = CompletableFuture.runAsync(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e){
+            inFlight.release();
+            return CompletableFuture.completedFuture(new BranchOutcome(BranchStatus.REJECTED, 0, e));
+        }
+        return run
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .handle((ignored, error) -> {
+                    long elapsed = System.nanoTime() - start;
+                    if (error == null){
+                        return new BranchOutcome(BranchStatus.SUCCEEDED, elapsed, null);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    return new BranchOutcome(cause instanceof TimeoutException ? BranchStatus.TIMED_OUT : BranchStatus.FAILED, elapsed, cause);
+                });
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() looked up at runtime so the project still builds for Java 17
+    private static ExecutorService newVirtualThreadPerTaskExecutor(){
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e){
+            return null;
+        } catch (Throwable e){
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+
+    public enum BranchStatus { SUCCEEDED, FAILED, TIMED_OUT, REJECTED }
+
+    public record BranchOutcome(BranchStatus status, long durationNanos, Throwable error) {
+
+        public boolean succeeded(){
+            return status == BranchStatus.SUCCEEDED;
+        }
+    }
+
+    public record PublishResult(BranchOutcome store, BranchOutcome notification, long durationNanos) {
+
+        public boolean succeeded(){
+            return store.succeeded() && notification.succeeded();
+        }
+
+        @Override
+        public String toString(){
+            return "store=" + store.status() + " in " + TimeUnit.NANOSECONDS.toMicros(store.durationNanos()) + "us"
+                    + ", notification=" + notification.status() + " in " + TimeUnit.NANOSECONDS.toMicros(notification.durationNanos()) + "us"
+                    + ", total=" + TimeUnit.NANOSECONDS.toMicros(durationNanos) + "us";
+        }
+    }
+}
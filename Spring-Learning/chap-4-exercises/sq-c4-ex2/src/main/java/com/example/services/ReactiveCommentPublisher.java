@@ -0,0 +1,193 @@
+package com.example.services;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.*;
+import com.example.repositories.*;
+import com.example.model.*;
+import com.example.proxies.*;
+
+/**
+ * Demand-driven alternative to {@link CommentService#publishComment(Comment)} built on {@link java.util.concurrent.Flow}.
+ *
+ * Comments go through a {@link SubmissionPublisher} with a bounded buffer to a subscriber that stores and notifies
+ * them one at a time and only requests more comments as it finishes earlier ones. When the repository or the
+ * notification proxy falls behind, the buffer fills up and {@link #publishComment(Comment)} either blocks the
+ * producer ({@link OverflowStrategy#BLOCK}) or drops the comment ({@link OverflowStrategy#DROP}), so memory stays
+ * bounded by the buffer size. Producers that are Flow publishers themselves can subscribe {@link #newSubscriber()},
+ * which applies the same demand to them directly and completes its future when their stream ends.
+ */
+@Component
+public class ReactiveCommentPublisher implements DisposableBean {
+
+    public static final int DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+    public static final int DEFAULT_PREFETCH = 64;
+    public static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final CommentRepository commentRepository;
+    private final CommentNotificationProxy commentNotificationProxy;
+    private final OverflowStrategy overflowStrategy;
+    private final int prefetch;
+    private final ExecutorService executor;
+    private final SubmissionPublisher<Comment> publisher;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder throttledNanos = new LongAdder();
+    private final AtomicLong maxLag = new AtomicLong();
+
+    @Autowired
+    public ReactiveCommentPublisher(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy){
+        this(commentRepository, commentNotificationProxy, DEFAULT_BUFFER_SIZE, DEFAULT_PREFETCH, OverflowStrategy.BLOCK);
+    }
+
+    public ReactiveCommentPublisher(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy,
+                                    int bufferSize, int prefetch, OverflowStrategy overflowStrategy){
+        if (bufferSize < 1 || prefetch < 1){
+            throw new IllegalArgumentException("Buffer size and prefetch must be positive");
+        }
+        this.commentRepository = commentRepository;
+        this.commentNotificationProxy = commentNotificationProxy;
+        this.overflowStrategy = overflowStrategy;
+        this.prefetch = prefetch;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-reactive-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publisher = new SubmissionPublisher<>(executor, bufferSize);
+        this.publisher.subscribe(new CommentSubscriber(completion));
+    }
+
+    /**
+     * Hands the comment to the subscriber. Returns false if it was dropped because the buffer was full;
+     * with the block strategy the call waits for room instead and always returns true.
+     */
+    public boolean publishComment(Comment comment){
+        submitted.increment();
+        if (overflowStrategy == OverflowStrategy.DROP){
+            int lag = publisher.offer(comment, (subscriber, item) -> false);
+            if (lag < 0){
+                dropped.increment();
+                return false;
+            }
+            maxLag.accumulateAndGet(lag, Math::max);
+            return true;
+        }
+        // Try without waiting first, so only the calls that really found the buffer full count as throttled
+        int lag = publisher.offer(comment, (subscriber, item) -> false);
+        if (lag < 0){
+            long start = System.nanoTime();
+            lag = publisher.submit(comment);
+            throttled.increment();
+            throttledNanos.add(System.nanoTime() - start);
+        }
+        maxLag.accumulateAndGet(lag, Math::max);
+        return true;
+    }
+
+    // Subscriber for an external Flow publisher of comments; it requests comments only as fast as they are published
+    public ExternalSubscription newSubscriber(){
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        return new ExternalSubscription(new CommentSubscriber(done), done);
+    }
+
+    public PublishStats getStats(){
+        return new PublishStats(submitted.sum(), published.sum(), failed.sum(), dropped.sum(),
+                throttled.sum(), throttledNanos.sum(), publisher.estimateMaximumLag(), maxLag.get());
+    }
+
+    // Stops accepting comments and waits until the subscriber has published everything already buffered
+    @Override
+    public void destroy() throws Exception {
+        publisher.close();
+        try {
+            completion.get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e){
+            System.err.println("Comments still buffered after " + CLOSE_TIMEOUT_SECONDS + "s: " + publisher.estimateMaximumLag());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Requests prefetch comments up front and asks for more once half of them have been published
+    private final class CommentSubscriber implements Flow.Subscriber<Comment> {
+        private final CompletableFuture<Void> done;
+        private Flow.Subscription subscription;
+        private int outstanding;
+
+        CommentSubscriber(CompletableFuture<Void> done){
+            this.done = done;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription){
+            this.subscription = subscription;
+            outstanding = prefetch;
+            subscription.request(prefetch);
+        }
+
+        @Override
+        public void onNext(Comment comment){
+            try {
+                commentRepository.storeComment(comment);
+                commentNotificationProxy.sendComment(comment);
+                published.increment();
+            } catch (RuntimeException e){
+                failed.increment();
+                System.err.println("Failed to publish comment by " + comment.getAuthor() + ": " + e.getMessage());
+            }
+            if (--outstanding <= prefetch / 2){
+                subscription.request(prefetch - outstanding);
+                outstanding = prefetch;
+            }
+        }
+
+        @Override
+        public void onError(Throwable error){
+            System.err.println("Comment stream failed: " + error.getMessage());
+            done.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete(){
+            done.complete(null);
+        }
+    }
+
+    public enum OverflowStrategy { BLOCK, DROP }
+
+    // completion finishes when the external publisher completes, or exceptionally when it signals an error
+    public record ExternalSubscription(Flow.Subscriber<Comment> subscriber, CompletableFuture<Void> completion) { }
+
+    /**
+     * throttled and throttledNanos count the BLOCK calls that had to wait for room and how long they waited.
+     */
+    public record PublishStats(long submitted, long published, long failed, long dropped,
+                               long throttled, long throttledNanos, int currentLag, long maxLag) {
+
+        @Override
+        public String toString(){
+            return "submitted=" + submitted
+                    + ", published=" + published
+                    + ", failed=" + failed
+                    + ", dropped=" + dropped
+                    + ", throttled=" + throttled
+                    + ", throttledTime=" + TimeUnit.NANOSECONDS.toMillis(throttledNanos) + "ms"
+                    + ", currentLag=" + currentLag
+                    + ", maxLag=" + maxLag;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.services.*;
+
+// Registers the singleton CommentService with a supplier instead of calling the @Bean method on a configuration proxy
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("commentService", CommentService.class, CommentService::new);
+    }
+}
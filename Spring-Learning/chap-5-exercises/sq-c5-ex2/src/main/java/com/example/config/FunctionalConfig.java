@@ -0,0 +1,27 @@
+package com.example.config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.repositories.*;
+import com.example.services.*;
+
+/**
+ * Registers the scanned service and repository beans with suppliers. Both services get the same singleton
+ * repository through their setters rather than through the {@code @Autowired} fields.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("commentRepository", CommentRepository.class, CommentRepository::new);
+        context.registerBean("commentService", CommentService.class, () -> {
+            var service = new CommentService();
+            service.setCommentRepository(context.getBean("commentRepository", CommentRepository.class));
+            return service;
+        });
+        context.registerBean("userService", UserService.class, () -> {
+            var service = new UserService();
+            service.setCommentRepository(context.getBean("commentRepository", CommentRepository.class));
+            return service;
+        });
+    }
+}
@@ -12,4 +12,9 @@ public class CommentService {
     public CommentRepository getCommentRepository(){
         return commentRepository;
     }
+
+    // Lets the functional registration inject the repository without reflection
+    public void setCommentRepository(CommentRepository commentRepository){
+        this.commentRepository = commentRepository;
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.services.*;
+
+// The eager singleton CommentService, registered with a supplier; it is still created while the context starts
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("commentService", CommentService.class, CommentService::new);
+    }
+}
@@ -3,13 +3,20 @@ package com.example;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import com.example.config.*;
 import com.example.services.*;
+import com.example.startup.*;
 
 public class Main {
     public static void main(String[] args) {
-        var context = new AnnotationConfigApplicationContext(ProjectConfig.class);
+        var startup = new StartupStepRecorder();
+        var context = new AnnotationConfigApplicationContext();
+        context.setApplicationStartup(startup);
+        context.register(ProjectConfig.class);
+        context.refresh();
     
         System.out.println("Before retrieving CommentService");
         var cs = context.getBean(CommentService.class);
         System.out.println("After retrieving CommentService");
+
+        System.out.println(startup.report());
     }
-}
\ No newline at end of file
+}
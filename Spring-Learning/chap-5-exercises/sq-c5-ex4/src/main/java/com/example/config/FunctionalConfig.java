@@ -0,0 +1,21 @@
+package com.example.config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.services.*;
+import com.example.startup.*;
+
+/**
+ * Registers the lazy CommentService and the global lazy-init post-processor with suppliers.
+ * {@code @Lazy} becomes the lazy-init flag of the bean definition, which the post-processor leaves alone
+ * the same way it leaves explicitly annotated beans.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("globalLazyInitPostProcessor", GlobalLazyInitPostProcessor.class,
+                ProjectConfig::globalLazyInitPostProcessor);
+        context.registerBean("commentService", CommentService.class, CommentService::new,
+                definition -> definition.setLazyInit(true));
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.config;
 
 import org.springframework.context.annotation.*;
+import com.example.startup.*;
 
 @Configuration
 @ComponentScan(basePackages="com.example.services")
 public class ProjectConfig {
-    
+
+    // Turn on with -Dlazy.init.global=true, keep selected beans eager with -Dlazy.init.eager=beanA,beanB
+    @Bean
+    public static GlobalLazyInitPostProcessor globalLazyInitPostProcessor(){
+        return new GlobalLazyInitPostProcessor();
+    }
 }
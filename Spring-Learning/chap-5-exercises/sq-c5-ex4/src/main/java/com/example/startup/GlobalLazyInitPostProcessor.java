@@ -0,0 +1,51 @@
+package com.example.startup;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+/**
+ * Switches every application bean to lazy initialization, as if each one had {@code @Lazy}.
+ * Turned on with {@code lazy.init.global=true}; beans named in the comma separated
+ * {@code lazy.init.eager} list are still created when the context starts. Infrastructure beans and
+ * beans that set {@code @Lazy(false)} explicitly are left alone.
+ */
+public class GlobalLazyInitPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+    public static final String ENABLED_PROPERTY = "lazy.init.global";
+    public static final String EAGER_BEANS_PROPERTY = "lazy.init.eager";
+
+    private boolean enabled;
+    private Set<String> eagerBeans = Set.of();
+
+    @Override
+    public void setEnvironment(Environment environment){
+        this.enabled = environment.getProperty(ENABLED_PROPERTY, Boolean.class, false);
+        this.eagerBeans = Arrays.stream(environment.getProperty(EAGER_BEANS_PROPERTY, "").split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory){
+        if (!enabled){
+            return;
+        }
+        for (String name : beanFactory.getBeanDefinitionNames()){
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            // getLazyInit() is null when nothing was declared, so an explicit @Lazy(false) wins
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || eagerBeans.contains(name)
+                    || definition instanceof AbstractBeanDefinition declared && declared.getLazyInit() != null){
+                continue;
+            }
+            definition.setLazyInit(true);
+        }
+    }
+}
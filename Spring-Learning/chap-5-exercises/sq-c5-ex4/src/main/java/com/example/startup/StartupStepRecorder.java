@@ -0,0 +1,152 @@
+package com.example.startup;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * ApplicationStartup that keeps every step Spring reports while the context starts: component class
+ * registration, configuration class parsing and scanning, bean factory post-processing, bean instantiation
+ * and bean post-processor registration. {@link #report()} prints the steps as a tree with their durations,
+ * followed by the total and self time per step name.
+ */
+public class StartupStepRecorder implements ApplicationStartup {
+    private final AtomicLong ids = new AtomicLong();
+    private final ThreadLocal<Deque<RecordedStep>> current = ThreadLocal.withInitial(ArrayDeque::new);
+    private final ConcurrentLinkedQueue<RecordedStep> steps = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public StartupStep start(String name){
+        Deque<RecordedStep> stack = current.get();
+        RecordedStep parent = stack.peek();
+        RecordedStep step = new RecordedStep(ids.incrementAndGet(), parent, name, stack);
+        stack.push(step);
+        steps.add(step);
+        return step;
+    }
+
+    public String report(){
+        StringBuilder report = new StringBuilder("Startup steps (ms):\n");
+        Map<RecordedStep, List<RecordedStep>> children = new LinkedHashMap<>();
+        List<RecordedStep> roots = new ArrayList<>();
+        for (RecordedStep step : steps){
+            if (step.parent == null){
+                roots.add(step);
+            } else {
+                children.computeIfAbsent(step.parent, key -> new ArrayList<>()).add(step);
+            }
+        }
+        for (RecordedStep root : roots){
+            appendTree(report, root, children, 1);
+        }
+
+        Map<String, long[]> totals = new TreeMap<>();
+        for (RecordedStep step : steps){
+            long childTime = children.getOrDefault(step, List.of()).stream().mapToLong(RecordedStep::duration).sum();
+            long[] total = totals.computeIfAbsent(step.name, key -> new long[3]);
+            total[0]++;
+            total[1] += step.duration();
+            total[2] += step.duration() - childTime;
+        }
+        report.append(String.format("%nTotals per step:%n%-50s %6s %10s %10s%n", "step", "count", "total ms", "self ms"));
+        totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[2]).reversed())
+                .forEach(entry -> report.append(String.format("%-50s %6d %10.2f %10.2f%n", entry.getKey(),
+                        entry.getValue()[0], entry.getValue()[1] / 1e6, entry.getValue()[2] / 1e6)));
+        return report.toString();
+    }
+
+    private void appendTree(StringBuilder report, RecordedStep step, Map<RecordedStep, List<RecordedStep>> children, int depth){
+        report.append("  ".repeat(depth))
+                .append(String.format("%.2f ", step.duration() / 1e6))
+                .append(step.name);
+        if (!step.tags.isEmpty()){
+            report.append(' ').append(step.tags);
+        }
+        report.append('\n');
+        for (RecordedStep child : children.getOrDefault(step, List.of())){
+            appendTree(report, child, children, depth + 1);
+        }
+    }
+
+    private static final class RecordedStep implements StartupStep {
+        private final long id;
+        private final RecordedStep parent;
+        private final String name;
+        private final Deque<RecordedStep> stack;
+        private final Map<String, String> tags = new LinkedHashMap<>();
+        private final long start = System.nanoTime();
+        private volatile long end;
+
+        RecordedStep(long id, RecordedStep parent, String name, Deque<RecordedStep> stack){
+            this.id = id;
+            this.parent = parent;
+            this.name = name;
+            this.stack = stack;
+        }
+
+        long duration(){
+            return (end == 0 ? System.nanoTime() : end) - start;
+        }
+
+        @Override
+        public String getName(){
+            return name;
+        }
+
+        @Override
+        public long getId(){
+            return id;
+        }
+
+        @Override
+        public Long getParentId(){
+            return parent == null ? null : parent.id;
+        }
+
+        @Override
+        public StartupStep tag(String key, String value){
+            tags.put(key, value);
+            return this;
+        }
+
+        @Override
+        public StartupStep tag(String key, Supplier<String> value){
+            return tag(key, value.get());
+        }
+
+        @Override
+        public Tags getTags(){
+            List<Tag> list = new ArrayList<>();
+            tags.forEach((key, value) -> list.add(new Tag() {
+                @Override
+                public String getKey(){
+                    return key;
+                }
+
+                @Override
+                public String getValue(){
+                    return value;
+                }
+            }));
+            return list::iterator;
+        }
+
+        @Override
+        public void end(){
+            end = System.nanoTime();
+            stack.remove(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.config;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.services.*;
+
+// The prototype CommentService registered with a supplier: every getBean call runs it for a new instance
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("commentService", CommentService.class, CommentService::new,
+                definition -> definition.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+    }
+}
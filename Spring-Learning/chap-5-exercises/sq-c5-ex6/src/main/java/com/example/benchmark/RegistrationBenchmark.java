@@ -0,0 +1,121 @@
+package com.example.benchmark;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ClassUtils;
+import com.example.config.*;
+import com.example.repositories.*;
+
+/**
+ * Annotation-driven context (component scan plus {@code @Autowired} fields) against the functional registrations
+ * of {@link FunctionalConfig}: time to start and close a context once the JVM is warm, and throughput of getBean
+ * for the prototype CommentRepository by name and by type. Before measuring it checks that both contexts hold the
+ * same beans with the same types, scopes and flags, so the comparison fails loudly once the two setups drift apart.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.RegistrationBenchmark -Dexec.args="200 2000000"
+ */
+public class RegistrationBenchmark {
+
+    private record Mode(String name, Supplier<GenericApplicationContext> factory) {
+    }
+
+    public static void main(String[] args) {
+        int starts = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Mode[] modes = {
+                new Mode("annotation", () -> new AnnotationConfigApplicationContext(ProjectConfig.class)),
+                new Mode("functional", FunctionalConfig::createFunctionalContext)
+        };
+
+        // The services print from their constructors, so console output is dropped while contexts start
+        PrintStream console = System.out;
+        long[][] startMicros = new long[modes.length][starts];
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            checkSameBeans(modes);
+            for (int round = 0; round < 2; round++){
+                // Interleaved so JIT and GC effects hit both modes alike; the first round is warm-up
+                for (int run = 0; run < starts; run++){
+                    for (int m = 0; m < modes.length; m++){
+                        long start = System.nanoTime();
+                        modes[m].factory().get().close();
+                        startMicros[m][run] = (System.nanoTime() - start) / 1000;
+                    }
+                }
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        System.out.printf("%-12s %14s %14s %16s %16s%n", "mode", "start med (ms)", "start min (ms)", "byName ops/s", "byType ops/s");
+        for (int m = 0; m < modes.length; m++){
+            Arrays.sort(startMicros[m]);
+            double byName = 0;
+            double byType = 0;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try (GenericApplicationContext context = modes[m].factory().get()){
+                for (int round = 0; round < 3; round++){
+                    byName = measure(lookups, () -> context.getBean("commentRepository", CommentRepository.class));
+                    byType = measure(lookups, () -> context.getBean(CommentRepository.class));
+                }
+            } finally {
+                System.setOut(console);
+            }
+            System.out.printf("%-12s %14.2f %14.2f %16.0f %16.0f%n", modes[m].name(),
+                    startMicros[m][starts / 2] / 1000.0, startMicros[m][0] / 1000.0, byName, byType);
+        }
+    }
+
+    // One context at a time, so singletons such as MBeans are never registered twice
+    private static void checkSameBeans(Mode[] modes){
+        Map<String, String> expected = null;
+        for (Mode mode : modes){
+            Map<String, String> beans;
+            try (GenericApplicationContext context = mode.factory().get()){
+                beans = describe(context);
+            }
+            if (expected != null && !beans.equals(expected)){
+                throw new IllegalStateException(mode.name() + " context registers " + beans + " but "
+                        + modes[0].name() + " registers " + expected);
+            }
+            expected = beans;
+        }
+    }
+
+    // Application beans by name with their type, scope and flags, leaving out the configuration class itself
+    private static Map<String, String> describe(GenericApplicationContext context){
+        Map<String, String> beans = new TreeMap<>();
+        for (String name : context.getBeanDefinitionNames()){
+            BeanDefinition definition = context.getBeanFactory().getMergedBeanDefinition(name);
+            if (definition.getRole() == BeanDefinition.ROLE_APPLICATION && context.findAnnotationOnBean(name, Configuration.class) == null){
+                beans.put(name, ClassUtils.getUserClass(context.getType(name)).getSimpleName() + " " + definition.getScope()
+                        + (definition.isPrimary() ? " primary" : "") + (definition.isLazyInit() ? " lazy" : ""));
+            }
+        }
+        return beans;
+    }
+
+    private static double measure(int lookups, Supplier<CommentRepository> lookup){
+        int distinct = 0;
+        CommentRepository previous = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++){
+            CommentRepository repository = lookup.get();
+            if (repository != previous){
+                distinct++;
+            }
+            previous = repository;
+        }
+        double rate = lookups / ((System.nanoTime() - start) / 1e9);
+        if (distinct != lookups){
+            throw new IllegalStateException("CommentRepository is expected to be a new instance on every lookup");
+        }
+        return rate;
+    }
+}
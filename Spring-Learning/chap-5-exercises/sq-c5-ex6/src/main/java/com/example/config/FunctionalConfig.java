@@ -0,0 +1,36 @@
+package com.example.config;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.repositories.*;
+import com.example.services.*;
+
+/**
+ * Registers the scanned beans with suppliers. The repository stays a prototype, so each service still gets
+ * its own instance, handed over through the setter instead of the {@code @Autowired} field.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("commentRepository", CommentRepository.class, CommentRepository::new,
+                definition -> definition.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+        context.registerBean("commentService", CommentService.class, () -> {
+            var service = new CommentService();
+            service.setCommentRepository(context.getBean("commentRepository", CommentRepository.class));
+            return service;
+        });
+        context.registerBean("userService", UserService.class, () -> {
+            var service = new UserService();
+            service.setCommentRepository(context.getBean("commentRepository", CommentRepository.class));
+            return service;
+        });
+    }
+
+    public static GenericApplicationContext createFunctionalContext(){
+        var context = new GenericApplicationContext();
+        new FunctionalConfig().initialize(context);
+        context.refresh();
+        return context;
+    }
+}
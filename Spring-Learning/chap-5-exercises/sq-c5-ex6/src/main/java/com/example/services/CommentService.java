@@ -17,4 +17,9 @@ public class CommentService {
         return commentRepository;
     }
 
+    // Lets the functional registration inject the repository without reflection
+    public void setCommentRepository(CommentRepository commentRepository){
+        this.commentRepository = commentRepository;
+    }
+
 }
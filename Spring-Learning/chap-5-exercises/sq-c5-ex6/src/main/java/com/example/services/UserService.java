@@ -15,4 +15,9 @@ public class UserService {
     public CommentRepository getCommentRepository(){
         return commentRepository;
     }
+
+    // Lets the functional registration inject the repository without reflection
+    public void setCommentRepository(CommentRepository commentRepository){
+        this.commentRepository = commentRepository;
+    }
 }
@@ -0,0 +1,109 @@
+package com.example.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.support.GenericApplicationContext;
+
+import com.example.config.FunctionalConfig;
+import com.example.config.ProjectConfig;
+import com.example.model.Comment;
+import com.example.services.CommentPublisher;
+
+/**
+ * CommentService.publishComment without an aspect (sq-c6-ex1), with the simple around advice (sq-c6-ex2)
+ * and with argument and return value logging (sq-c6-ex3), through JDK dynamic proxies and CGLIB class proxies.
+ * The unadvised service is not proxied at all, so it is measured once rather than once per proxy type.
+ * Log records are created as usual but discarded, so the numbers show the cost of the proxy and the advice
+ * rather than of console output. With -jvmArgsAppend -Dspring.functional=true the contexts are built by
+ * {@link FunctionalConfig} instead of {@link ProjectConfig#createContext}; the proxies and the advice are the same
+ * either way.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentServiceProxyBenchmark {
+    private static final String FUNCTIONAL_PROPERTY = "spring.functional";
+
+    public enum ProxySetup {
+        NONE(ProjectConfig.Variant.NONE, ProjectConfig.ProxyType.JDK),
+        SIMPLE_JDK(ProjectConfig.Variant.SIMPLE, ProjectConfig.ProxyType.JDK),
+        SIMPLE_CGLIB(ProjectConfig.Variant.SIMPLE, ProjectConfig.ProxyType.CGLIB),
+        ARGUMENTS_JDK(ProjectConfig.Variant.ARGUMENTS, ProjectConfig.ProxyType.JDK),
+        ARGUMENTS_CGLIB(ProjectConfig.Variant.ARGUMENTS, ProjectConfig.ProxyType.CGLIB);
+
+        final ProjectConfig.Variant variant;
+        final ProjectConfig.ProxyType proxyType;
+
+        ProxySetup(ProjectConfig.Variant variant, ProjectConfig.ProxyType proxyType){
+            this.variant = variant;
+            this.proxyType = proxyType;
+        }
+    }
+
+    @Param({"NONE", "SIMPLE_JDK", "SIMPLE_CGLIB", "ARGUMENTS_JDK", "ARGUMENTS_CGLIB"})
+    private ProxySetup setup;
+
+    private GenericApplicationContext context;
+    private CommentPublisher service;
+    private Comment comment;
+
+    @Setup
+    public void setUp(){
+        Logger root = Logger.getLogger("");
+        for (Handler handler : root.getHandlers()){
+            root.removeHandler(handler);
+        }
+        root.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record){
+            }
+
+            @Override
+            public void flush(){
+            }
+
+            @Override
+            public void close(){
+            }
+        });
+
+        if (Boolean.getBoolean(FUNCTIONAL_PROPERTY)){
+            context = new GenericApplicationContext();
+            new FunctionalConfig(setup.variant, setup.proxyType).initialize(context);
+            context.refresh();
+        } else {
+            context = ProjectConfig.createContext(setup.variant, setup.proxyType);
+        }
+        service = context.getBean(CommentPublisher.class);
+        boolean proxied = setup.proxyType == ProjectConfig.ProxyType.CGLIB ? AopUtils.isCglibProxy(service) : AopUtils.isJdkDynamicProxy(service);
+        if (proxied != (setup.variant != ProjectConfig.Variant.NONE)){
+            throw new IllegalStateException("Unexpected service class " + service.getClass() + " for " + setup);
+        }
+        comment = new Comment("Benchmark comment", "Maaha");
+    }
+
+    @TearDown
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String singleThreaded(){
+        return service.publishComment(comment);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String multiThreaded(){
+        return service.publishComment(comment);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.config;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.Ordered;
+import com.example.logger.*;
+import com.example.services.*;
+
+/**
+ * Registers the beans of {@link ProjectConfig#createContext} for one variant and proxy type with suppliers
+ * instead of a component scan. The variant and proxy type are picked at runtime, so unlike the other modules
+ * the initializer is created with them rather than with a no-argument constructor.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    private final ProjectConfig.Variant variant;
+    private final ProjectConfig.ProxyType proxyType;
+
+    public FunctionalConfig(ProjectConfig.Variant variant, ProjectConfig.ProxyType proxyType){
+        this.variant = variant;
+        this.proxyType = proxyType;
+    }
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        if (variant != ProjectConfig.Variant.NONE){
+            context.registerBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME, AnnotationAwareAspectJAutoProxyCreator.class, () -> {
+                var creator = new AnnotationAwareAspectJAutoProxyCreator();
+                creator.setOrder(Ordered.HIGHEST_PRECEDENCE);
+                creator.setProxyTargetClass(proxyType == ProjectConfig.ProxyType.CGLIB);
+                return creator;
+            }, definition -> definition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE));
+            if (variant == ProjectConfig.Variant.SIMPLE){
+                context.registerBean("simpleLoggingAspect", SimpleLoggingAspect.class, SimpleLoggingAspect::new);
+            } else {
+                context.registerBean("argumentLoggingAspect", ArgumentLoggingAspect.class, ArgumentLoggingAspect::new);
+            }
+        }
+        context.registerBean("commentService", CommentService.class, CommentService::new);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.config;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.context.annotation.*;
+import com.example.logger.*;
+
+@Configuration
+@ComponentScan(basePackages = "com.example.services")
+public class ProjectConfig {
+
+    public enum Variant { NONE, SIMPLE, ARGUMENTS }
+
+    public enum ProxyType { JDK, CGLIB }
+
+    // Builds the context the way @EnableAspectJAutoProxy would, with the aspect and proxy type chosen at runtime
+    public static AnnotationConfigApplicationContext createContext(Variant variant, ProxyType proxyType){
+        var context = new AnnotationConfigApplicationContext();
+        context.register(ProjectConfig.class);
+        if (variant != Variant.NONE){
+            AopConfigUtils.registerAspectJAnnotationAutoProxyCreatorIfNecessary(context);
+            if (proxyType == ProxyType.CGLIB){
+                AopConfigUtils.forceAutoProxyCreatorToUseClassProxying(context);
+            }
+            context.register(variant == Variant.SIMPLE ? SimpleLoggingAspect.class : ArgumentLoggingAspect.class);
+        }
+        context.refresh();
+        return context;
+    }
+}
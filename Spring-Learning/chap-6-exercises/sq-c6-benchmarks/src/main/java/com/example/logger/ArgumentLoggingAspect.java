@@ -0,0 +1,28 @@
+package com.example.logger;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.*;
+
+// Same advice as the original sq-c6-ex3: logs the arguments and the returned value
+@Aspect
+public class ArgumentLoggingAspect {
+    private Logger logger = Logger.getLogger(ArgumentLoggingAspect.class.getName());
+
+    @Around("execution(* com.example.services.*.*(..))")
+    public Object log(ProceedingJoinPoint jp) throws Throwable{
+        
+        String methodName = jp.getSignature().getName();
+        Object [] arguments = jp.getArgs();
+
+        logger.info("Method name " + methodName + " with parameters " + Arrays.asList(arguments));
+    
+        Object returnValByMethod = jp.proceed();
+
+        logger.info("Returned value by method " + returnValByMethod);
+
+        return returnValByMethod;
+    }
+}
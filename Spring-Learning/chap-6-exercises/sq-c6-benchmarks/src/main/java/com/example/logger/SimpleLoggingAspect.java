@@ -0,0 +1,23 @@
+package com.example.logger;
+
+import java.util.logging.Logger;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.*;
+
+// Same advice as sq-c6-ex2
+@Aspect
+public class SimpleLoggingAspect {
+    private Logger logger = Logger.getLogger(SimpleLoggingAspect.class.getName());
+
+    @Around("execution(* com.example.services.*.*(..))")
+    public Object log(ProceedingJoinPoint jp) throws Throwable{
+        logger.info("Method will execute");
+
+        Object result = jp.proceed();
+    
+        logger.info("Method executed");
+        
+        return result;
+    }
+}
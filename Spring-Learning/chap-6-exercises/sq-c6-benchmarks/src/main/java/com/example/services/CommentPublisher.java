@@ -0,0 +1,8 @@
+package com.example.services;
+
+import com.example.model.*;
+
+// Interface so the service can be proxied with JDK dynamic proxies as well as CGLIB
+public interface CommentPublisher {
+    String publishComment(Comment comment);
+}
@@ -0,0 +1,16 @@
+package com.example.services;
+
+import java.util.logging.Logger;
+import com.example.model.*;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CommentService implements CommentPublisher {
+    private Logger logger = Logger.getLogger(CommentService.class.getName());
+
+    @Override
+    public String publishComment(Comment comment){
+        logger.info("Publishing comment " + comment.getComment());
+        return "SUCCESS";
+    }
+}
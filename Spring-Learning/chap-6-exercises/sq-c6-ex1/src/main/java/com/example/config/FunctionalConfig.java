@@ -0,0 +1,13 @@
+package com.example.config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.services.*;
+
+// Registers the plain CommentService with a supplier; there is no aspect yet, so nothing gets proxied
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("commentService", CommentService.class, CommentService::new);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.config;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.Ordered;
+import com.example.logger.*;
+import com.example.services.*;
+
+/**
+ * Registers the service, the aspect and the auto-proxy creator that {@code @EnableAspectJAutoProxy} would add,
+ * all with suppliers. The beans themselves are created without reflection; the proxy creator still reads the
+ * {@code @Around} advice from the aspect class, as it does in the annotation-driven context.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME, AnnotationAwareAspectJAutoProxyCreator.class, () -> {
+            var creator = new AnnotationAwareAspectJAutoProxyCreator();
+            creator.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return creator;
+        }, definition -> definition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE));
+        context.registerBean("loggingAspect", LoggingAspect.class, LoggingAspect::new);
+        context.registerBean("commentService", CommentService.class, CommentService::new);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import com.example.config.ProjectConfig;
+import com.example.logger.LoggingAspect;
+import com.example.model.Comment;
+import com.example.services.CommentService;
+
+/**
+ * Cost of the logging advice around CommentService.publishComment, compared with calling the service directly.
+ * {@code advised} has only {@link LoggingAspect}; {@code advisedAndTimed} uses {@link ProjectConfig}, which also
+ * scans the TimingAspect, to show what the latency histograms add on top.
+ * Run with: mvn -P benchmarks package && java -jar target/benchmarks.jar LoggingAspectBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    @Param({"OFF", "INFO"})
+    private String logLevel;
+
+    private AnnotationConfigApplicationContext context;
+    private AnnotationConfigApplicationContext timedContext;
+    private CommentService direct;
+    private CommentService advised;
+    private CommentService advisedAndTimed;
+    private Comment comment;
+
+    @Setup
+    public void setUp(){
+        // Keep records flowing through the logger but discard them, so console I/O is not measured
+        Logger root = Logger.getLogger("");
+        for (Handler handler : root.getHandlers()){
+            root.removeHandler(handler);
+        }
+        root.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record){
+            }
+
+            @Override
+            public void flush(){
+            }
+
+            @Override
+            public void close(){
+            }
+        });
+        Logger.getLogger("com.example").setLevel(Level.parse(logLevel));
+
+        context = new AnnotationConfigApplicationContext(LoggingOnlyConfig.class);
+        advised = context.getBean(CommentService.class);
+        timedContext = new AnnotationConfigApplicationContext(ProjectConfig.class);
+        advisedAndTimed = timedContext.getBean(CommentService.class);
+        direct = new CommentService();
+        comment = new Comment("Benchmark comment", "Maaha");
+    }
+
+    @TearDown
+    public void tearDown(){
+        context.close();
+        timedContext.close();
+    }
+
+    @Benchmark
+    public String direct(){
+        return direct.publishComment(comment);
+    }
+
+    @Benchmark
+    public String advised(){
+        return advised.publishComment(comment);
+    }
+
+    @Benchmark
+    public String advisedAndTimed(){
+        return advisedAndTimed.publishComment(comment);
+    }
+
+    // The service with the logging aspect alone, without the rest of the scanned logger package
+    @Configuration
+    @EnableAspectJAutoProxy
+    static class LoggingOnlyConfig {
+
+        @Bean
+        public LoggingAspect loggingAspect(){
+            return new LoggingAspect();
+        }
+
+        @Bean
+        public CommentService commentService(){
+            return new CommentService();
+        }
+    }
+}
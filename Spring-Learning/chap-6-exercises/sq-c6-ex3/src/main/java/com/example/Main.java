@@ -4,6 +4,7 @@ import java.util.logging.Logger;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import com.example.services.*;
 import com.example.config.ProjectConfig;
+import com.example.logger.TimingAspect;
 import com.example.model.Comment;
 
 public class Main {
@@ -20,5 +21,10 @@ public class Main {
         String value = service.publishComment(new Comment("Hey Maaha here", "Maaha"));
 
         logger.info(value);
+
+        var timing = context.getBean(TimingAspect.class);
+        for (String line : timing.getMethodLatencies()){
+            logger.info(line);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.config;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.jmx.export.annotation.AnnotationMBeanExporter;
+import com.example.logger.*;
+import com.example.services.*;
+
+/**
+ * Supplier-based registrations for the beans of ProjectConfig, including the infrastructure that
+ * {@code @EnableAspectJAutoProxy} and {@code @EnableMBeanExport} would register. Creating the beans takes no
+ * reflection; the advice and the JMX attributes are still read from the aspect annotations, so both aspects
+ * keep their order and TimingAspect is still exported.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME, AnnotationAwareAspectJAutoProxyCreator.class, () -> {
+            var creator = new AnnotationAwareAspectJAutoProxyCreator();
+            creator.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return creator;
+        }, definition -> definition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE));
+        context.registerBean("mbeanExporter", AnnotationMBeanExporter.class, AnnotationMBeanExporter::new,
+                definition -> definition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE));
+        context.registerBean("loggingAspect", LoggingAspect.class, LoggingAspect::new);
+        context.registerBean("timingAspect", TimingAspect.class, TimingAspect::new);
+        context.registerBean("commentService", CommentService.class, CommentService::new);
+    }
+}
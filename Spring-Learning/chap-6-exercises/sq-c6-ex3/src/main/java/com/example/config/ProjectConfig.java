@@ -8,6 +8,7 @@ import org.aspectj.lang.annotation.*;
     "com.example.logger"
 })
 @EnableAspectJAutoProxy
+@EnableMBeanExport
 public class ProjectConfig {
     
 }
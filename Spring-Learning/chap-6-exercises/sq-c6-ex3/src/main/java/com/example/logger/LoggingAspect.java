@@ -1,29 +1,59 @@
 package com.example.logger;
 
-import java.util.Arrays;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 @Aspect
 @Component
+@Order(1)
 public class LoggingAspect {
+    private static final int MAX_RETAINED_BUFFER = 4096;
+
+    // One message buffer per thread, reused for every log line that thread writes
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
     Logger logger = Logger.getLogger(LoggingAspect.class.getName());
 
     @Around("execution(* com.example.services.*.*(..))")
     public Object log(ProceedingJoinPoint jp) throws Throwable{
-        
-        String methodName = jp.getSignature().getName();
+        // When INFO is off nothing is formatted and the join point arguments are not even copied
+        if (!logger.isLoggable(Level.INFO)){
+            return jp.proceed();
+        }
+
+        StringBuilder message = buffer();
+        message.append("Method name ").append(jp.getSignature().getName()).append(" with parameters [");
         Object [] arguments = jp.getArgs();
+        for (int i = 0; i < arguments.length; i++){
+            if (i > 0){
+                message.append(", ");
+            }
+            message.append(arguments[i]);
+        }
+        logger.info(message.append(']').toString());
 
-        logger.info("Method name " + methodName + " with parameters " + Arrays.asList(arguments));
-    
         Object returnValByMethod = jp.proceed();
 
-        logger.info("Returned value by method " + returnValByMethod);
+        if (logger.isLoggable(Level.INFO)){
+            logger.info(buffer().append("Returned value by method ").append(returnValByMethod).toString());
+        }
 
         return returnValByMethod;
     }
-}
\ No newline at end of file
+
+    private static StringBuilder buffer(){
+        StringBuilder buffer = BUFFER.get();
+        // Drop buffers that grew for an unusually long message instead of keeping them per thread forever
+        if (buffer.capacity() > MAX_RETAINED_BUFFER){
+            buffer = new StringBuilder(256);
+            BUFFER.set(buffer);
+        }
+        buffer.setLength(0);
+        return buffer;
+    }
+}
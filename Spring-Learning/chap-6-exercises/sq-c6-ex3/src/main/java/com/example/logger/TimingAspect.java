@@ -0,0 +1,80 @@
+package com.example.logger;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long every service method takes into a per-method {@link LatencyHistogram}.
+ * Runs inside {@link LoggingAspect} so log formatting is not counted as method time.
+ * Snapshots are available through {@link #snapshot()} and over JMX as com.example:type=TimingAspect.
+ */
+@Aspect
+@Component
+@Order(2)
+@ManagedResource(objectName = "com.example:type=TimingAspect")
+public class TimingAspect {
+    private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.example.services.*.*(..))")
+    public Object time(ProceedingJoinPoint jp) throws Throwable{
+        Method method = ((MethodSignature) jp.getSignature()).getMethod();
+        LatencyHistogram histogram = histograms.get(method);
+        if (histogram == null){
+            histogram = histograms.computeIfAbsent(method, m -> new LatencyHistogram());
+        }
+
+        long start = System.nanoTime();
+        try {
+            return jp.proceed();
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    // Latency snapshot in nanoseconds per method, keyed by DeclaringClass.method
+    public Map<String, LatencyHistogram.Snapshot> snapshot(){
+        Map<String, LatencyHistogram.Snapshot> snapshot = new TreeMap<>();
+        histograms.forEach((method, histogram) ->
+                snapshot.put(method.getDeclaringClass().getSimpleName() + "." + method.getName(), histogram.snapshot()));
+        return snapshot;
+    }
+
+    @ManagedAttribute(description = "Latency percentiles per service method, in microseconds")
+    public String[] getMethodLatencies(){
+        return snapshot().entrySet().stream()
+                .map(entry -> format(entry.getKey(), entry.getValue()))
+                .toArray(String[]::new);
+    }
+
+    @ManagedOperation(description = "Clears all recorded latencies")
+    public void reset(){
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    private static String format(String method, LatencyHistogram.Snapshot s){
+        return method
+                + " count=" + s.count()
+                + " mean=" + micros(s.mean())
+                + " p50=" + micros(s.p50())
+                + " p90=" + micros(s.p90())
+                + " p99=" + micros(s.p99())
+                + " p99.9=" + micros(s.p999())
+                + " max=" + micros(s.max());
+    }
+
+    private static String micros(long nanos){
+        return String.format("%.1fus", nanos / (double) TimeUnit.MICROSECONDS.toNanos(1));
+    }
+}
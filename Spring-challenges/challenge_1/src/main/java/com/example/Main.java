@@ -1,6 +1,9 @@
 package com.example;
 import com.example.config.*;
 
+import java.nio.channels.Channels;
+import java.util.stream.Stream;
+
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 import com.example.components.MessageAppRunner;
@@ -11,5 +14,7 @@ public class Main {
     
         var message = context.getBean(MessageAppRunner.class);
         System.out.println(message.run("Hello it's Maaha!"));
+
+        message.runAll(Stream.of("First bulk message", "Second bulk message"), Channels.newChannel(System.out));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.example.benchmark;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import com.example.components.*;
+import com.example.service.*;
+
+/**
+ * Writes timestamped lines to a byte channel one String at a time versus through the bulk channel API,
+ * reporting lines per second and bytes allocated per line.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.BulkMessageBenchmark -Dexec.args="5000000 10"
+ * (lines, clock tick in milliseconds).
+ */
+public class BulkMessageBenchmark {
+
+    // Discards everything written to it but keeps a byte count
+    private static final class CountingChannel implements WritableByteChannel {
+        long bytes;
+
+        @Override
+        public int write(ByteBuffer src){
+            int n = src.remaining();
+            src.position(src.limit());
+            bytes += n;
+            return n;
+        }
+
+        @Override
+        public boolean isOpen(){
+            return true;
+        }
+
+        @Override
+        public void close(){
+        }
+    }
+
+    public static void main(String[] args) {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        long tick = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        var provider = new TimestampProvider(tick);
+        var service = new MessageService(provider);
+
+        perLine(service, new CountingChannel(), lines / 10);
+        bulk(service, new CountingChannel(), lines / 10);
+
+        System.out.printf("%-10s %14s %14s %12s%n", "mode", "lines/sec", "bytes/line", "MB written");
+        measure("per-line", lines, channel -> perLine(service, channel, lines));
+        measure("bulk", lines, channel -> bulk(service, channel, lines));
+        provider.destroy();
+    }
+
+    private static void perLine(MessageService service, CountingChannel channel, int lines){
+        for (int i = 0; i < lines; i++){
+            channel.write(ByteBuffer.wrap(service.sendMessage("Hello it's Maaha!").concat("\n").getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static void bulk(MessageService service, CountingChannel channel, int lines){
+        service.sendMessages(Stream.generate(() -> "Hello it's Maaha!").limit(lines), channel);
+    }
+
+    private static void measure(String name, int lines, java.util.function.Consumer<CountingChannel> run){
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        var channel = new CountingChannel();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        run.accept(channel);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-10s %14.0f %14.1f %12.1f%n", name, lines / (elapsed / 1e9),
+                allocated / (double) lines, channel.bytes / 1e6);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.benchmark;
+import com.example.components.*;
+import com.example.service.*;
+
+/**
+ * Messages per second from MessageService with the system clock read on every message versus cached clocks
+ * with different tick lengths.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.TimestampBenchmark -Dexec.args="5000000"
+ */
+public class TimestampBenchmark {
+
+    public static void main(String[] args) {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        long[] ticks = {0, 1, 10, 1000};
+
+        System.out.printf("%-12s %16s%n", "tick (ms)", "messages/sec");
+        for (long tick : ticks){
+            var provider = new TimestampProvider(tick);
+            var service = new MessageService(provider);
+            run(service, messages / 10);
+            long start = System.nanoTime();
+            long checksum = run(service, messages);
+            long elapsed = System.nanoTime() - start;
+            provider.destroy();
+            System.out.printf("%-12s %16.0f%s%n", tick == 0 ? "uncached" : tick,
+                    messages / (elapsed / 1e9), checksum == 0 ? " (empty output)" : "");
+        }
+    }
+
+    // Sums the line lengths so the formatted messages cannot be optimized away
+    private static long run(MessageService service, int messages){
+        long checksum = 0;
+        for (int i = 0; i < messages; i++){
+            checksum += service.sendMessage("Hello it's Maaha!").length();
+        }
+        return checksum;
+    }
+}
@@ -1,4 +1,6 @@
 package com.example.components;
+import java.nio.channels.WritableByteChannel;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Component;
 import com.example.service.*;
 
@@ -13,4 +15,8 @@ public class MessageAppRunner {
     public String run(String message){
         return messageService.sendMessage(message);
     }
+
+    public long runAll(Stream<String> messages, WritableByteChannel out){
+        return messageService.sendMessages(messages, out);
+    }
 }
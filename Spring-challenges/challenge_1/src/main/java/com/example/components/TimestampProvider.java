@@ -1,13 +1,123 @@
 package com.example.components;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Supplies the current time for messages.
+ * With a tick of 0 (the default) every call reads the system clock. With a positive tick, set through the
+ * {@code timestamp.tickMillis} property, a background ticker refreshes a cached time and its formatted text
+ * once per tick, and callers read the cached values without allocating. The tick is also the precision:
+ * cached times are truncated to a multiple of it.
+ */
 @Component
-public class TimestampProvider {
+public class TimestampProvider implements DisposableBean {
+    private final long tickMillis;
+    private final ScheduledExecutorService ticker;
+    private volatile CachedTime cached;
+
+    public TimestampProvider(){
+        this(0);
+    }
+
+    @Autowired
+    public TimestampProvider(@Value("${timestamp.tickMillis:0}") long tickMillis){
+        if (tickMillis < 0){
+            throw new IllegalArgumentException("Tick must not be negative");
+        }
+        this.tickMillis = tickMillis;
+        if (tickMillis == 0){
+            this.ticker = null;
+            return;
+        }
+        this.cached = CachedTime.of(truncate(System.currentTimeMillis()));
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timestamp-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
     public Timestamp timeNow(){
+        if (isCached()){
+            return new Timestamp(cached.millis);
+        }
         Date date = new Date();
         Timestamp ts = new Timestamp(date.getTime());
         return ts;
     }
+
+    public long currentMillis(){
+        return isCached() ? cached.millis : System.currentTimeMillis();
+    }
+
+    public Instant currentInstant(){
+        return isCached() ? cached.instant : Instant.now();
+    }
+
+    // Current time as Timestamp.toString() would print it
+    public String formattedNow(){
+        return isCached() ? cached.formatted : timeNow().toString();
+    }
+
+    // Message prefix "[<formatted time>]: "
+    public String prefixNow(){
+        return isCached() ? cached.prefix : prefix(timeNow().toString());
+    }
+
+    public boolean isCached(){
+        return tickMillis > 0;
+    }
+
+    public long getTickMillis(){
+        return tickMillis;
+    }
+
+    @Override
+    public void destroy(){
+        if (ticker != null){
+            ticker.shutdownNow();
+        }
+    }
+
+    private void tick(){
+        long millis = truncate(System.currentTimeMillis());
+        if (millis != cached.millis){
+            cached = CachedTime.of(millis);
+        }
+    }
+
+    private long truncate(long millis){
+        return millis - millis % tickMillis;
+    }
+
+    private static String prefix(String formatted){
+        return "[" + formatted + "]: ";
+    }
+
+    private static final class CachedTime {
+        final long millis;
+        final Instant instant;
+        final String formatted;
+        final String prefix;
+
+        private CachedTime(long millis, String formatted){
+            this.millis = millis;
+            this.instant = Instant.ofEpochMilli(millis);
+            this.formatted = formatted;
+            this.prefix = prefix(formatted);
+        }
+
+        static CachedTime of(long millis){
+            return new CachedTime(millis, new Timestamp(millis).toString());
+        }
+    }
 }
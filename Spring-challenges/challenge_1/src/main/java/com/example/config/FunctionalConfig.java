@@ -0,0 +1,22 @@
+package com.example.config;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.components.*;
+import com.example.service.*;
+
+/**
+ * Registers the scanned components with suppliers that call their constructors directly. The tick that
+ * {@code @Value} injects into TimestampProvider is read from the environment here, with the same default.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("timestampProvider", TimestampProvider.class, () ->
+                new TimestampProvider(context.getEnvironment().getProperty("timestamp.tickMillis", Long.class, 0L)));
+        context.registerBean("messageService", MessageService.class,
+                () -> new MessageService(context.getBean("timestampProvider", TimestampProvider.class)));
+        context.registerBean("messageAppRunner", MessageAppRunner.class,
+                () -> new MessageAppRunner(context.getBean("messageService", MessageService.class)));
+    }
+}
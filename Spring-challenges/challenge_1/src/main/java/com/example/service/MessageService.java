@@ -1,10 +1,19 @@
 package com.example.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Service;
 import com.example.components.*;
 
 @Service
 public class MessageService {
+    // Per-thread encoder and buffer reused by every bulk send on that thread
+    private static final ThreadLocal<LineEncoder> ENCODER = ThreadLocal.withInitial(LineEncoder::new);
+
     private TimestampProvider timestampProvider;
 
     public MessageService(TimestampProvider timestampProvider){
@@ -12,6 +21,140 @@ public class MessageService {
     }
 
     public String sendMessage(String message){
-        return "[" + timestampProvider.timeNow() + "]: " + message;    
+        return timestampProvider.prefixNow() + message;    
+    }
+
+    // Appends one "[timestamp]: message" line per message without building a String per line
+    public long sendMessages(Stream<String> messages, Appendable out){
+        long[] count = new long[1];
+        messages.forEachOrdered(message -> {
+            try {
+                out.append(timestampProvider.prefixNow()).append(message).append('\n');
+            } catch (IOException e){
+                throw new UncheckedIOException("Failed to write messages", e);
+            }
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    // Encodes one line per message as UTF-8 straight into the channel through a reused per-thread buffer
+    public long sendMessages(Stream<String> messages, WritableByteChannel out){
+        LineEncoder encoder = ENCODER.get();
+        long[] count = new long[1];
+        encoder.start(out);
+        try {
+            messages.forEachOrdered(message -> {
+                encoder.writeLine(timestampProvider.prefixNow(), message);
+                count[0]++;
+            });
+            encoder.finish();
+        } finally {
+            encoder.release();
+        }
+        return count[0];
+    }
+
+    // Hand-rolled UTF-8 encoder writing into one reused byte array, flushed to the channel when full
+    private static final class LineEncoder {
+        private final byte[] buffer = new byte[64 * 1024];
+        private final ByteBuffer view = ByteBuffer.wrap(buffer);
+        private char[] chars = new char[256];
+        private WritableByteChannel channel;
+        private int position;
+        // The prefix only changes once per clock tick, so its encoded bytes are kept until it does
+        private String lastPrefix;
+        private byte[] lastPrefixBytes;
+
+        void start(WritableByteChannel channel){
+            this.channel = channel;
+            this.position = 0;
+        }
+
+        void writeLine(String prefix, String message){
+            try {
+                if (prefix != lastPrefix){
+                    lastPrefix = prefix;
+                    lastPrefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+                }
+                write(lastPrefixBytes);
+                write(message);
+                ensure(1);
+                buffer[position++] = '\n';
+            } catch (IOException e){
+                throw new UncheckedIOException("Failed to write messages", e);
+            }
+        }
+
+        private void write(byte[] bytes) throws IOException {
+            ensure(bytes.length);
+            if (bytes.length > buffer.length){
+                channel.write(ByteBuffer.wrap(bytes));
+                return;
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void write(String text) throws IOException {
+            int length = text.length();
+            if (chars.length < length){
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            text.getChars(0, length, chars, 0);
+            for (int i = 0; i < length; i++){
+                char c = chars[i];
+                if (c < 0x80){
+                    ensure(1);
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800){
+                    ensure(2);
+                    buffer[position++] = (byte) (0xC0 | c >> 6);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])){
+                    int codePoint = Character.toCodePoint(c, chars[++i]);
+                    ensure(4);
+                    buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                    buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)){
+                    // Unpaired surrogate, replaced the same way String.getBytes(UTF_8) does
+                    ensure(1);
+                    buffer[position++] = '?';
+                } else {
+                    ensure(3);
+                    buffer[position++] = (byte) (0xE0 | c >> 12);
+                    buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+
+        void finish(){
+            try {
+                drain();
+            } catch (IOException e){
+                throw new UncheckedIOException("Failed to write messages", e);
+            }
+        }
+
+        void release(){
+            channel = null;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (position + bytes > buffer.length){
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            view.clear().limit(position);
+            while (view.hasRemaining()){
+                channel.write(view);
+            }
+            position = 0;
+        }
     }
 }
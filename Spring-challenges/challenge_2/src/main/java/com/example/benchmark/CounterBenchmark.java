@@ -0,0 +1,110 @@
+package com.example.benchmark;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import com.example.service.*;
+
+/**
+ * Scalability of a shared counter from 1 to N threads: synchronized int, AtomicLong and CounterService (LongAdder).
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.CounterBenchmark -Dexec.args="8 2000"
+ * (maximum thread count, milliseconds per run).
+ */
+public class CounterBenchmark {
+
+    interface Counter {
+        void increment();
+        long get();
+    }
+
+    static final class SynchronizedCounter implements Counter {
+        private int count = 0;
+
+        public synchronized void increment(){
+            count++;
+        }
+
+        public synchronized long get(){
+            return count;
+        }
+    }
+
+    static final class AtomicCounter implements Counter {
+        private final AtomicLong count = new AtomicLong();
+
+        public void increment(){
+            count.incrementAndGet();
+        }
+
+        public long get(){
+            return count.get();
+        }
+    }
+
+    static final class StripedCounter implements Counter {
+        private final CounterService service = new CounterService();
+
+        public void increment(){
+            service.increment();
+        }
+
+        public long get(){
+            return service.getCount();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long durationMillis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+
+        System.out.printf("%-8s %18s %18s %18s%n", "threads", "synchronized/s", "AtomicLong/s", "CounterService/s");
+        for (int threads = 1; threads <= maxThreads; threads *= 2){
+            System.out.printf("%-8d %18.0f %18.0f %18.0f%n", threads,
+                    run(new SynchronizedCounter(), threads, durationMillis),
+                    run(new AtomicCounter(), threads, durationMillis),
+                    run(new StripedCounter(), threads, durationMillis));
+        }
+    }
+
+    // Increments the counter from all threads for the given time and returns increments per second
+    private static double run(Counter counter, int threads, long durationMillis) throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var done = new CountDownLatch(threads);
+        long[] perThread = new long[threads];
+        List<Thread> workers = new ArrayList<>();
+        long[] deadline = new long[1];
+        for (int t = 0; t < threads; t++){
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e){
+                    return;
+                }
+                long ops = 0;
+                while (System.nanoTime() < deadline[0]){
+                    for (int i = 0; i < 1000; i++){
+                        counter.increment();
+                    }
+                    ops += 1000;
+                }
+                perThread[index] = ops;
+                done.countDown();
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        deadline[0] = System.nanoTime() + durationMillis * 1_000_000;
+        start.countDown();
+        done.await();
+
+        long total = 0;
+        for (long ops : perThread){
+            total += ops;
+        }
+        if (counter.get() != total){
+            throw new IllegalStateException("Lost updates: counted " + counter.get() + " but performed " + total);
+        }
+        return total / (durationMillis / 1000.0);
+    }
+}
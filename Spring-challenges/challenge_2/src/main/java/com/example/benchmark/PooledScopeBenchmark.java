@@ -0,0 +1,74 @@
+package com.example.benchmark;
+import java.lang.management.ManagementFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.config.*;
+import com.example.scope.*;
+import com.example.service.*;
+
+/**
+ * getBean cost of CounterService in prototype scope versus the pooled scope, in time and bytes allocated per lookup.
+ * Add -Dspring.functional=true to measure the beans registered by {@link FunctionalConfig} instead of the scanned ones.
+ * Run with: mvn compile exec:java -Dexec.mainClass=com.example.benchmark.PooledScopeBenchmark -Dexec.args="1000000"
+ */
+public class PooledScopeBenchmark {
+    private static final String FUNCTIONAL_PROPERTY = "spring.functional";
+    private static final String PROTOTYPE_BEAN = "counterService";
+    private static final String POOLED_BEAN = "pooledCounterService";
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        var context = newContext();
+        context.registerBean(POOLED_BEAN, CounterService.class, bd -> bd.setScope(PooledScope.SCOPE_POOLED));
+        context.refresh();
+        var scope = (PooledScope) context.getBeanFactory().getRegisteredScope(PooledScope.SCOPE_POOLED);
+
+        // Warm up both paths before measuring
+        prototype(context, iterations / 10);
+        pooled(context, scope, iterations / 10);
+
+        System.out.printf("%-10s %12s %14s%n", "scope", "ns/getBean", "bytes/getBean");
+        measure("prototype", iterations, () -> prototype(context, iterations));
+        measure("pooled", iterations, () -> pooled(context, scope, iterations));
+        System.out.println("Pool stats: " + scope.getStats());
+        context.close();
+    }
+
+    // Registered but not refreshed, so the pooled bean can be added first
+    private static GenericApplicationContext newContext(){
+        if (Boolean.getBoolean(FUNCTIONAL_PROPERTY)){
+            var context = new GenericApplicationContext();
+            new FunctionalConfig().initialize(context);
+            return context;
+        }
+        var context = new AnnotationConfigApplicationContext();
+        context.register(ProjectConfig.class);
+        return context;
+    }
+
+    private static void prototype(GenericApplicationContext context, int iterations){
+        for (int i = 0; i < iterations; i++){
+            context.getBean(PROTOTYPE_BEAN, CounterService.class).increment();
+        }
+    }
+
+    private static void pooled(GenericApplicationContext context, PooledScope scope, int iterations){
+        for (int i = 0; i < iterations; i++){
+            var counter = context.getBean(POOLED_BEAN, CounterService.class);
+            counter.increment();
+            scope.release(POOLED_BEAN, counter);
+        }
+    }
+
+    private static void measure(String name, int iterations, Runnable run){
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        System.out.printf("%-10s %12.1f %14.1f%n", name, elapsed / (double) iterations, bytes / (double) iterations);
+    }
+}
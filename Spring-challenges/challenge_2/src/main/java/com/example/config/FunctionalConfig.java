@@ -0,0 +1,20 @@
+package com.example.config;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.CustomScopeConfigurer;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import com.example.service.*;
+
+/**
+ * Registers the scope configurer and the prototype CounterService with suppliers, so every getBean of
+ * the counter runs the supplier instead of resolving a constructor and the bean post-processors' metadata.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        context.registerBean("customScopeConfigurer", CustomScopeConfigurer.class, ProjectConfig::customScopeConfigurer);
+        context.registerBean("counterService", CounterService.class, CounterService::new,
+                definition -> definition.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+    }
+}
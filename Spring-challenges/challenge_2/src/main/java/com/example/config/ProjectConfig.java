@@ -1,8 +1,17 @@
 package com.example.config;
+import org.springframework.beans.factory.config.CustomScopeConfigurer;
 import org.springframework.context.annotation.*;
+import com.example.scope.*;
 
 @Configuration
 @ComponentScan(basePackages="com.example.service")
 public class ProjectConfig {
-    
+
+    // Makes @Scope(PooledScope.SCOPE_POOLED) available to every bean in the context
+    @Bean
+    public static CustomScopeConfigurer customScopeConfigurer(){
+        var configurer = new CustomScopeConfigurer();
+        configurer.addScope(PooledScope.SCOPE_POOLED, new PooledScope());
+        return configurer;
+    }
 }
@@ -0,0 +1,132 @@
+package com.example.scope;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+
+/**
+ * Scope that hands out instances from a bounded pool per bean name instead of creating one on every lookup.
+ * {@code getBean} borrows an idle instance, or creates a new one when the pool is empty, just like prototype scope.
+ * Callers give the instance back with {@link #release(String, Object)}; it is reset if it implements
+ * {@link Resettable} and kept for the next borrower unless the pool is already full. With borrow tracking on,
+ * handed-out instances are remembered by identity until they are released, so releasing twice, or releasing an
+ * instance this pool never handed out, is rejected instead of letting two borrowers share one instance. Tracking is
+ * off by default: it keeps every unreleased instance reachable, including ones injected into other beans, which
+ * prototype scope would let the garbage collector reclaim.
+ * As with prototype beans, the container does not run destruction callbacks for pooled instances.
+ */
+public class PooledScope implements Scope {
+    public static final String SCOPE_POOLED = "pooled";
+    public static final int DEFAULT_MAX_IDLE = 16;
+
+    private final int maxIdle;
+    private final boolean trackBorrowed;
+    private final Map<String, BlockingQueue<Object>> pools = new ConcurrentHashMap<>();
+    private final Map<String, Set<Borrowed>> borrowed = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder returned = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    public PooledScope(){
+        this(DEFAULT_MAX_IDLE, false);
+    }
+
+    public PooledScope(int maxIdle, boolean trackBorrowed){
+        if (maxIdle < 1){
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.maxIdle = maxIdle;
+        this.trackBorrowed = trackBorrowed;
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory){
+        Object bean = pool(name).poll();
+        if (bean != null){
+            hits.increment();
+        } else {
+            misses.increment();
+            bean = objectFactory.getObject();
+        }
+        if (trackBorrowed){
+            borrowed(name).add(new Borrowed(bean));
+        }
+        return bean;
+    }
+
+    // Gives a borrowed instance back to the pool of the given bean
+    public void release(String name, Object bean){
+        if (trackBorrowed && !borrowed(name).remove(new Borrowed(bean))){
+            throw new IllegalArgumentException("Instance was not borrowed from pool '" + name + "' or was already released");
+        }
+        if (bean instanceof Resettable resettable){
+            resettable.reset();
+        }
+        if (pool(name).offer(bean)){
+            returned.increment();
+        } else {
+            discarded.increment();
+        }
+    }
+
+    @Override
+    public Object remove(String name){
+        BlockingQueue<Object> pool = pools.remove(name);
+        return pool == null ? null : pool.poll();
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback){
+        // Like prototype beans, pooled instances get no destruction callbacks
+    }
+
+    @Override
+    public Object resolveContextualObject(String key){
+        return null;
+    }
+
+    @Override
+    public String getConversationId(){
+        return null;
+    }
+
+    public int idleCount(String name){
+        BlockingQueue<Object> pool = pools.get(name);
+        return pool == null ? 0 : pool.size();
+    }
+
+    public PoolStats getStats(){
+        return new PoolStats(hits.sum(), misses.sum(), returned.sum(), discarded.sum());
+    }
+
+    private BlockingQueue<Object> pool(String name){
+        return pools.computeIfAbsent(name, key -> new ArrayBlockingQueue<>(maxIdle));
+    }
+
+    private Set<Borrowed> borrowed(String name){
+        return borrowed.computeIfAbsent(name, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    // Compares instances by identity, so beans with their own equals are never mistaken for one another
+    private record Borrowed(Object bean) {
+
+        @Override
+        public boolean equals(Object other){
+            return other instanceof Borrowed borrowed && borrowed.bean == bean;
+        }
+
+        @Override
+        public int hashCode(){
+            return System.identityHashCode(bean);
+        }
+    }
+
+    public record PoolStats(long hits, long misses, long returned, long discarded) {
+    }
+}
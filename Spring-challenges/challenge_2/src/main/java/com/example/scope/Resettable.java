@@ -0,0 +1,6 @@
+package com.example.scope;
+
+// Implemented by pooled beans that must be cleared before another caller borrows them
+public interface Resettable {
+    void reset();
+}
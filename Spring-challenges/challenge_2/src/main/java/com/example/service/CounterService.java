@@ -1,18 +1,91 @@
 package com.example.service;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.config.BeanDefinition;
+import com.example.scope.*;
 
+/**
+ * Thread-safe counter that can be shared between threads without serializing them.
+ * Increments go to striped {@link LongAdder} cells, so concurrent callers rarely touch the same memory.
+ * Besides the total, the last {@link #MAX_WINDOW_SECONDS} seconds are kept in one-second buckets
+ * to answer "how many increments in the last N seconds".
+ */
 @Service
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
-public class CounterService {
-    private int count = 0;
+public class CounterService implements Resettable {
+    public static final int MAX_WINDOW_SECONDS = 60;
+
+    private final LongAdder count = new LongAdder();
+    private final AtomicReferenceArray<SecondBucket> buckets = new AtomicReferenceArray<>(MAX_WINDOW_SECONDS);
 
     public void increment(){
-        count++;
+        count.increment();
+        bucketFor(currentSecond()).count.increment();
+    }
+
+    public long getCount(){
+        return count.sum();
+    }
+
+    // Increments in the current second and the seconds - 1 before it
+    public long getCountInLast(int seconds){
+        if (seconds < 1 || seconds > MAX_WINDOW_SECONDS){
+            throw new IllegalArgumentException("Window must be between 1 and " + MAX_WINDOW_SECONDS + " seconds");
+        }
+        long now = currentSecond();
+        long sum = 0;
+        for (int i = 0; i < MAX_WINDOW_SECONDS; i++){
+            SecondBucket bucket = buckets.get(i);
+            if (bucket != null && bucket.second > now - seconds && bucket.second <= now){
+                sum += bucket.count.sum();
+            }
+        }
+        return sum;
+    }
+
+    // Average increments per second over the last N seconds
+    public double getRate(int seconds){
+        return getCountInLast(seconds) / (double) seconds;
     }
 
-    public int getCount(){
-        return count;
+    // Clears the total and the rate window, used when the instance goes back to a pool
+    @Override
+    public void reset(){
+        count.reset();
+        for (int i = 0; i < MAX_WINDOW_SECONDS; i++){
+            buckets.set(i, null);
+        }
+    }
+
+    private SecondBucket bucketFor(long second){
+        int index = (int) (second % MAX_WINDOW_SECONDS);
+        SecondBucket bucket = buckets.get(index);
+        while (bucket == null || bucket.second != second){
+            // The slot still holds a bucket from a previous minute: replace it, or use the one another thread installed
+            if (bucket != null && bucket.second > second){
+                return bucket;
+            }
+            SecondBucket fresh = new SecondBucket(second);
+            if (buckets.compareAndSet(index, bucket, fresh)){
+                return fresh;
+            }
+            bucket = buckets.get(index);
+        }
+        return bucket;
+    }
+
+    private static long currentSecond(){
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static final class SecondBucket {
+        final long second;
+        final LongAdder count = new LongAdder();
+
+        SecondBucket(long second){
+            this.second = second;
+        }
     }
 }
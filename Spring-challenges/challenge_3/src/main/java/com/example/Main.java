@@ -1,7 +1,81 @@
 package com.example;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import com.example.config.*;
+import com.example.load.*;
+import com.example.services.*;
 
+/**
+ * Load test for the comment service. Runs every combination of the given rates, repositories and proxies,
+ * prints the results and appends them to a CSV file when --csv is given. The context is built from
+ * {@link FunctionalConfig} instead of ProjectConfig when run with -Dspring.functional=true.
+ * Run with: mvn compile exec:java -Dexec.args="--rate 1000,5000 --duration 30 --warmup 5 --threads 8
+ * --repository memory,jdbc --proxy noop --csv results.csv"
+ */
 public class Main {
-    public static void main(String[] args) {
-        System.out.println("Hello world!");
+    private static final String FUNCTIONAL_PROPERTY = "spring.functional";
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Map<String, String> options = parse(args);
+        String[] rates = options.getOrDefault("rate", "1000").split(",");
+        String[] repositories = options.getOrDefault("repository", "memory").split(",");
+        String[] proxies = options.getOrDefault("proxy", "noop").split(",");
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "10")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "2")));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+        Path csv = options.containsKey("csv") ? Path.of(options.get("csv")) : null;
+
+        if (csv != null && !Files.exists(csv)){
+            Files.writeString(csv, LoadResult.CSV_HEADER + "\n", StandardCharsets.UTF_8);
+        }
+        for (String repository : repositories){
+            for (String proxy : proxies){
+                for (String rate : rates){
+                    try (var context = createContext(repository, proxy)){
+                        var generator = new LoadGenerator(context.getBean(CommentService.class), threads);
+                        LoadResult result = generator.run(Double.parseDouble(rate), warmup, duration);
+                        System.out.print("[" + repository + ", " + proxy + "] " + result.report());
+                        if (csv != null){
+                            Files.writeString(csv, result.toCsv(repository, proxy), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static GenericApplicationContext createContext(String repository, String proxy){
+        var context = Boolean.getBoolean(FUNCTIONAL_PROPERTY)
+                ? new GenericApplicationContext() : new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("load-test",
+                Map.of("comment.repository", repository, "comment.proxy", proxy)));
+        if (context instanceof AnnotationConfigApplicationContext annotated){
+            annotated.register(ProjectConfig.class);
+        } else {
+            new FunctionalConfig().initialize(context);
+        }
+        context.refresh();
+        return context;
+    }
+
+    // Reads "--name value" pairs
+    private static Map<String, String> parse(String[] args){
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2){
+            if (!args[i].startsWith("--")){
+                throw new IllegalArgumentException("Expected an option name but got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.example.config;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.proxies.*;
+import com.example.repositories.*;
+import com.example.services.*;
+
+/**
+ * Registers the beans of {@link ProjectConfig} with suppliers that call its {@code @Bean} methods on a plain
+ * instance, so the load test can compare the service with and without the annotation-driven setup.
+ * The repository and proxy properties are read from the environment with the same defaults, and the data source
+ * stays lazy, so it is only created for the jdbc repository. The load test uses it with -Dspring.functional=true.
+ */
+public class FunctionalConfig implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    @Override
+    public void initialize(GenericApplicationContext context){
+        ProjectConfig config = new ProjectConfig();
+        Environment environment = context.getEnvironment();
+        context.registerBean("commentRepository", CommentRepository.class, () -> config.commentRepository(
+                environment.getProperty("comment.repository", "memory"), context.getBeanProvider(JdbcTemplate.class)));
+        context.registerBean("commentNotificationProxy", CommentNotificationProxy.class,
+                () -> config.commentNotificationProxy(environment.getProperty("comment.proxy", "noop")));
+        context.registerBean("commentService", CommentService.class, () -> config.commentService(
+                context.getBean("commentRepository", CommentRepository.class),
+                context.getBean("commentNotificationProxy", CommentNotificationProxy.class)));
+        // The pool is closed through AutoCloseable, as the inferred destroy method of the @Bean would be
+        context.registerBean("dataSource", DataSource.class, config::dataSource, definition -> {
+            definition.setLazyInit(true);
+            definition.setDestroyMethodName(AbstractBeanDefinition.INFER_METHOD);
+        });
+        context.registerBean("jdbcTemplate", JdbcTemplate.class,
+                () -> config.jdbcTemplate(context.getBean("dataSource", DataSource.class)),
+                definition -> definition.setLazyInit(true));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.config;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import com.example.proxies.*;
+import com.example.repositories.*;
+import com.example.services.*;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Declares the comment service with {@code @Bean} methods. The repository and notification proxy are picked
+ * with the {@code comment.repository} (memory, jdbc) and {@code comment.proxy} (noop, email) properties,
+ * so a load test can run against each implementation.
+ */
+@Configuration
+public class ProjectConfig {
+
+    public static final int MAX_POOL_SIZE = 16;
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    @Bean
+    public CommentRepository commentRepository(@Value("${comment.repository:memory}") String repository,
+                                               ObjectProvider<JdbcTemplate> jdbcTemplate){
+        return switch (repository){
+            case "memory" -> new InMemoryCommentRepository();
+            case "jdbc" -> new DBCommentRepository(jdbcTemplate.getObject());
+            default -> throw new IllegalArgumentException("Unknown comment repository: " + repository);
+        };
+    }
+
+    @Bean
+    public CommentNotificationProxy commentNotificationProxy(@Value("${comment.proxy:noop}") String proxy){
+        return switch (proxy){
+            case "noop" -> new NoOpCommentNotificationProxy();
+            case "email" -> new EmailCommentNotificationProxy();
+            default -> throw new IllegalArgumentException("Unknown comment notification proxy: " + proxy);
+        };
+    }
+
+    @Bean
+    public CommentService commentService(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy){
+        return new CommentService(commentRepository, commentNotificationProxy);
+    }
+
+    // Only created when the jdbc repository is selected. Each context gets its own in-memory database, which H2
+    // drops when the pool closes its last connection, so repeated runs in one JVM do not share or grow a table.
+    @Bean
+    @Lazy
+    public DataSource dataSource(){
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:comments-" + DATABASES.incrementAndGet());
+        config.setUsername("sa");
+        config.setMaximumPoolSize(MAX_POOL_SIZE);
+        config.setPoolName("comment-pool");
+        HikariDataSource dataSource = new HikariDataSource(config);
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")), dataSource);
+        return dataSource;
+    }
+
+    @Bean
+    @Lazy
+    public JdbcTemplate jdbcTemplate(DataSource dataSource){
+        return new JdbcTemplate(dataSource);
+    }
+}
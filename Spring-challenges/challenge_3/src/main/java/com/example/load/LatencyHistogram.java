@@ -0,0 +1,136 @@
+package com.example.load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets.
+ * Values below 64 get one bucket each; above that every power of two is split into 32 buckets,
+ * so a recorded value is reported within about 3% of its real value.
+ *
+ * Like {@link LongAdder}, counts are spread over stripes: each thread records into the bucket array of the stripe its
+ * id hashes to, so threads timing calls of similar latency do not all update the same cache line, and
+ * {@link #snapshot()} adds the stripes up. A stripe's array is created the first time a thread uses it; after that
+ * recording never allocates.
+ *
+ * The modules are built on their own, so the same class is copied in Spring-Learning/chap-6-exercises/sq-c6-ex3 (com.example.logger);
+ * apart from the package the two copies are identical and a change to one belongs in the other.
+ */
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BITS = 6;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (63 - LINEAR_BITS) * SUB_BUCKETS;
+    private static final int STRIPES = stripeCount(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPES);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value){
+        if (value < 0){
+            value = 0;
+        }
+        stripe().incrementAndGet(bucketOf(value));
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    public Snapshot snapshot(){
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int s = 0; s < STRIPES; s++){
+            AtomicLongArray counts = stripes.get(s);
+            if (counts == null){
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++){
+                long bucket = counts.get(i);
+                copy[i] += bucket;
+                count += bucket;
+            }
+        }
+        long maxValue = max.get();
+        return new Snapshot(
+                count,
+                count == 0 ? 0 : total.sum() / count,
+                percentile(copy, count, 0.50, maxValue),
+                percentile(copy, count, 0.90, maxValue),
+                percentile(copy, count, 0.99, maxValue),
+                percentile(copy, count, 0.999, maxValue),
+                maxValue);
+    }
+
+    public void reset(){
+        for (int s = 0; s < STRIPES; s++){
+            AtomicLongArray counts = stripes.get(s);
+            if (counts == null){
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++){
+                counts.set(i, 0);
+            }
+        }
+        total.reset();
+        max.reset();
+    }
+
+    // Bucket array of the calling thread's stripe, created on first use
+    private AtomicLongArray stripe(){
+        int hash = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        int index = (hash ^ (hash >>> 16)) & (STRIPES - 1);
+        AtomicLongArray counts = stripes.get(index);
+        if (counts == null){
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKET_COUNT));
+            counts = stripes.get(index);
+        }
+        return counts;
+    }
+
+    // Smallest power of two that is at least the number of processors
+    private static int stripeCount(int processors){
+        return processors <= 1 ? 1 : Integer.highestOneBit(processors - 1) << 1;
+    }
+
+    static int bucketOf(long value){
+        if (value < LINEAR_BUCKETS){
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (highestBit - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    // Largest value that falls into the given bucket
+    static long highestValueOf(int bucket){
+        if (bucket < LINEAR_BUCKETS){
+            return bucket;
+        }
+        int highestBit = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return ((long) (subBucket + 1) << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long count, double percentile, long maxValue){
+        if (count == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++){
+            seen += counts[i];
+            if (seen >= rank){
+                return Math.min(highestValueOf(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    public record Snapshot(long count, long mean, long p50, long p90, long p99, long p999, long max) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.load;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import com.example.model.*;
+import com.example.services.*;
+
+/**
+ * Open-loop load generator for {@link CommentService#publishComment(Comment)}.
+ *
+ * Requests follow a fixed schedule: request k is due {@code k / rate} seconds after the start, and worker
+ * thread {@code t} sends every request with {@code k % threads == t}. A slow call does not slow the schedule
+ * down, it only makes the worker's next requests start late. Latency is measured from the time a request was
+ * due rather than from when it was actually sent, so time spent waiting behind a stalled call is counted and
+ * the percentiles do not suffer from coordinated omission. Service time, measured from the actual send, is
+ * recorded next to it for comparison.
+ */
+public class LoadGenerator {
+
+    private final CommentService commentService;
+    private final int threads;
+
+    public LoadGenerator(CommentService commentService, int threads){
+        if (threads < 1){
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.commentService = commentService;
+        this.threads = threads;
+    }
+
+    // Sends requests at the target rate for warmup + duration and reports on the requests due after the warmup
+    public LoadResult run(double ratePerSecond, Duration warmup, Duration duration) throws InterruptedException {
+        if (ratePerSecond <= 0){
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        double intervalNanos = 1e9 / ratePerSecond;
+        long warmupRequests = (long) (warmup.toNanos() / intervalNanos);
+        long totalRequests = warmupRequests + (long) (duration.toNanos() / intervalNanos);
+
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        LongAdder completed = new LongAdder();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        LongAccumulator lastEnd = new LongAccumulator(Math::max, 0);
+
+        // Give every thread time to start before the first request is due
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        long measureStart = start + (long) (warmupRequests * intervalNanos);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++){
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    Comment[] comments = comments(worker);
+                    for (long k = worker; k < totalRequests; k += threads){
+                        long due = start + (long) (k * intervalNanos);
+                        waitUntil(due);
+                        long sent = System.nanoTime();
+                        try {
+                            commentService.publishComment(comments[(int) (k / threads % comments.length)]);
+                        } catch (RuntimeException e){
+                            if (k >= warmupRequests){
+                                errors.computeIfAbsent(e.getClass().getSimpleName(), name -> new LongAdder()).increment();
+                            }
+                            continue;
+                        }
+                        long end = System.nanoTime();
+                        if (k >= warmupRequests){
+                            latency.record(end - due);
+                            serviceTime.record(end - sent);
+                            completed.increment();
+                            lastEnd.accumulate(end);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "load-worker-" + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        long errorCount = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        long elapsed = Math.max(1, lastEnd.get() - measureStart);
+        Map<String, Long> errorsByType = new TreeMap<>();
+        errors.forEach((type, count) -> errorsByType.put(type, count.sum()));
+        return new LoadResult(ratePerSecond, threads, completed.sum(), errorCount, errorsByType,
+                completed.sum() / (elapsed / 1e9), latency.snapshot(), serviceTime.snapshot());
+    }
+
+    private static void waitUntil(long due){
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0){
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static Comment[] comments(int worker){
+        Comment[] comments = new Comment[256];
+        for (int i = 0; i < comments.length; i++){
+            comments[i] = new Comment();
+            comments[i].setAuthor("load-" + worker);
+            comments[i].setText("Load test comment " + i + " from worker " + worker);
+        }
+        return comments;
+    }
+}
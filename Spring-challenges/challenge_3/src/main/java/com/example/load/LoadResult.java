@@ -0,0 +1,36 @@
+package com.example.load;
+import java.util.Map;
+
+// Outcome of one load run; latencies are in nanoseconds
+public record LoadResult(double targetRate, int threads, long completed, long errors, Map<String, Long> errorsByType,
+                         double achievedRate, LatencyHistogram.Snapshot latency, LatencyHistogram.Snapshot serviceTime) {
+
+    public static final String CSV_HEADER = "repository,proxy,target_rate,threads,achieved_rate,completed,errors,"
+            + "metric,mean_us,p50_us,p99_us,p999_us,max_us";
+
+    public String report(){
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("target %.0f/s on %d threads: achieved %.0f/s, %d completed, %d errors %s%n",
+                targetRate, threads, achievedRate, completed, errors, errors == 0 ? "" : errorsByType));
+        report.append(String.format("  %-13s %10s %10s %10s %10s %10s%n", "(us)", "mean", "p50", "p99", "p99.9", "max"));
+        appendRow(report, "latency", latency);
+        appendRow(report, "service time", serviceTime);
+        return report.toString();
+    }
+
+    // One row for the corrected latency and one for the service time
+    public String toCsv(String repository, String proxy){
+        return csvRow(repository, proxy, "latency", latency) + "\n" + csvRow(repository, proxy, "service_time", serviceTime) + "\n";
+    }
+
+    private String csvRow(String repository, String proxy, String metric, LatencyHistogram.Snapshot snapshot){
+        return String.format("%s,%s,%.0f,%d,%.1f,%d,%d,%s,%.1f,%.1f,%.1f,%.1f,%.1f", repository, proxy, targetRate, threads,
+                achievedRate, completed, errors, metric, snapshot.mean() / 1e3, snapshot.p50() / 1e3,
+                snapshot.p99() / 1e3, snapshot.p999() / 1e3, snapshot.max() / 1e3);
+    }
+
+    private static void appendRow(StringBuilder report, String name, LatencyHistogram.Snapshot snapshot){
+        report.append(String.format("  %-13s %10.1f %10.1f %10.1f %10.1f %10.1f%n", name, snapshot.mean() / 1e3,
+                snapshot.p50() / 1e3, snapshot.p99() / 1e3, snapshot.p999() / 1e3, snapshot.max() / 1e3));
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.proxies;
+import com.example.model.*;
+
+public interface CommentNotificationProxy {
+    void sendComment(Comment comment);
+}
@@ -0,0 +1,10 @@
+package com.example.proxies;
+import com.example.model.*;
+
+public class EmailCommentNotificationProxy implements CommentNotificationProxy {
+
+    @Override
+    public void sendComment(Comment comment){
+        System.out.println("Sending notification for comment " + comment.getText());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.proxies;
+import com.example.model.*;
+
+// Sends nothing, so a load test measures the repository alone
+public class NoOpCommentNotificationProxy implements CommentNotificationProxy {
+
+    @Override
+    public void sendComment(Comment comment){
+    }
+}
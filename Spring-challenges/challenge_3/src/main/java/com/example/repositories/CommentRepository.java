@@ -0,0 +1,6 @@
+package com.example.repositories;
+import com.example.model.*;
+
+public interface CommentRepository {
+    void storeComment(Comment comment);
+}
@@ -0,0 +1,19 @@
+package com.example.repositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.example.model.*;
+
+public class DBCommentRepository implements CommentRepository {
+
+    private static final String INSERT_COMMENT = "INSERT INTO comment (author, text) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DBCommentRepository(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void storeComment(Comment comment){
+        jdbcTemplate.update(INSERT_COMMENT, comment.getAuthor(), comment.getText());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.repositories;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import com.example.model.*;
+
+public class InMemoryCommentRepository implements CommentRepository {
+
+    private final ConcurrentLinkedQueue<Comment> comments = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void storeComment(Comment comment){
+        comments.add(comment);
+    }
+
+    public int size(){
+        return comments.size();
+    }
+}